@@ -95,7 +95,7 @@ public class ChainFunctionConfig {
 
 
         // CALC_FUNC: functions that perform calculations
-        calcFunc.addAll(Arrays.asList("sum", "hitRate", "count", "avg", "stddev"));
+        calcFunc.addAll(Arrays.asList("sum", "hitRate", "count", "avg", "stddev", "max", "min", "range", "percentile", "median", "ewma", "ewmvar"));
 
         postProcessing.add("clear");
         // Build CALL_TREE based on function categories
@@ -0,0 +1,62 @@
+package io.github.mfinnnne.rhythmix.config;
+
+import com.googlecode.aviator.AviatorEvaluator;
+import com.googlecode.aviator.EvalMode;
+import io.github.mfinnnne.rhythmix.execute.ExpressionCache;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options of a {@link io.github.mfinnnne.rhythmix.execute.RhythmixRuntime} and of the Aviator
+ * instance it owns.
+ * <p>
+ * Typical usage:
+ * <pre>{@code
+ * RhythmixRuntime runtime = new RhythmixRuntime(RhythmixRuntimeOptions.builder()
+ *         .optimizeLevel(AviatorEvaluator.COMPILE)
+ *         .expressionCacheSize(256)
+ *         .build());
+ * }</pre>
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+@Getter
+@Builder
+public class RhythmixRuntimeOptions {
+
+    /**
+     * How Aviator runs the compiled rules: generated bytecode ({@link EvalMode#ASM}) or interpretation.
+     */
+    @Builder.Default
+    private final EvalMode evalMode = EvalMode.ASM;
+
+    /**
+     * Aviator optimize level, {@link AviatorEvaluator#EVAL} (faster compilation) or
+     * {@link AviatorEvaluator#COMPILE} (constant folding, faster execution).
+     */
+    @Builder.Default
+    private final int optimizeLevel = AviatorEvaluator.EVAL;
+
+    /**
+     * Maximum number of compiled expressions kept by the runtime.
+     */
+    @Builder.Default
+    private final int expressionCacheSize = ExpressionCache.DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * Eviction policy of the compiled expression cache.
+     */
+    @Builder.Default
+    private final ExpressionCache.EvictionPolicy evictionPolicy = ExpressionCache.EvictionPolicy.LRU;
+
+    /**
+     * Gets the default options.
+     *
+     * @return the default options
+     */
+    public static RhythmixRuntimeOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,290 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import com.googlecode.aviator.AviatorEvaluatorInstance;
+import com.googlecode.aviator.Expression;
+import lombok.Getter;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded cache of compiled Aviator expressions, keyed by translated code.
+ * <p>
+ * Expressions are compiled uncached, each in its own class loader, so an expression evicted
+ * or invalidated here can have its generated classes unloaded as soon as no executor uses it
+ * anymore. Executors pin their expression, evicting it never breaks a running rule.
+ * <p>
+ * The cache keeps hit, miss and eviction counters and an estimate of the classes generated for
+ * the expressions it holds, so a long-running process with frequent rule changes can check
+ * that its metaspace stays flat.
+ * <p>
+ * Thread-safety: all methods are thread-safe. Compilation happens outside the lock.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExpressionCache {
+
+    /**
+     * Default maximum number of cached expressions.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    /**
+     * How an entry is chosen when the cache is full.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evicts the least recently used expression.
+         */
+        LRU,
+        /**
+         * Evicts the least frequently used expression, the oldest one on ties.
+         */
+        LFU
+    }
+
+    private static final ClassLoadingMXBean CLASS_LOADING = ManagementFactory.getClassLoadingMXBean();
+
+    private final AviatorEvaluatorInstance evaluator;
+
+    @Getter
+    private final int maximumSize;
+
+    @Getter
+    private final EvictionPolicy evictionPolicy;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * Translated codes compiled for each rule, so a rule can be invalidated by its source.
+     */
+    private final Map<String, Set<String>> codesByRule = new HashMap<>();
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long classCount;
+
+    /**
+     * Creates a cache compiling with the evaluator of the default {@link RhythmixRuntime}.
+     *
+     * @param maximumSize    the maximum number of cached expressions, at least 1
+     * @param evictionPolicy the eviction policy
+     */
+    public ExpressionCache(int maximumSize, EvictionPolicy evictionPolicy) {
+        this(RhythmixRuntime.getDefault().getEvaluator(), maximumSize, evictionPolicy);
+    }
+
+    /**
+     * Creates a cache compiling with the given evaluator.
+     *
+     * @param evaluator      the evaluator compiling the expressions
+     * @param maximumSize    the maximum number of cached expressions, at least 1
+     * @param evictionPolicy the eviction policy
+     */
+    public ExpressionCache(AviatorEvaluatorInstance evaluator, int maximumSize, EvictionPolicy evictionPolicy) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        if (evaluator == null || evictionPolicy == null) {
+            throw new IllegalArgumentException("evaluator and evictionPolicy must not be null");
+        }
+        this.evaluator = evaluator;
+        this.maximumSize = maximumSize;
+        this.evictionPolicy = evictionPolicy;
+        this.entries = new LinkedHashMap<>(16, 0.75f, evictionPolicy == EvictionPolicy.LRU);
+    }
+
+    /**
+     * Gets the cache of the default {@link RhythmixRuntime}, used by the compiler.
+     *
+     * @return the shared cache
+     */
+    public static ExpressionCache getInstance() {
+        return RhythmixRuntime.getDefault().getExpressionCache();
+    }
+
+    /**
+     * Gets the compiled expression of a translated code, compiling it on a miss.
+     *
+     * @param code the translated code
+     * @return the compiled expression
+     */
+    public Expression get(String code) {
+        return get(null, code);
+    }
+
+    /**
+     * Gets the compiled expression of a translated code, compiling it on a miss, and records the
+     * rule it was translated from for {@link #invalidate(String)}.
+     *
+     * @param rule the Rhythmix source the code was translated from, can be {@code null}
+     * @param code the translated code
+     * @return the compiled expression
+     */
+    public Expression get(String rule, String code) {
+        synchronized (this) {
+            Entry entry = this.entries.get(code);
+            if (entry != null) {
+                this.hitCount++;
+                entry.frequency++;
+                link(rule, code, entry);
+                return entry.expression;
+            }
+            this.missCount++;
+        }
+        long loaded = CLASS_LOADING.getTotalLoadedClassCount();
+        Expression expression = this.evaluator.compile(code, false);
+        long classes = Math.max(0, CLASS_LOADING.getTotalLoadedClassCount() - loaded);
+        synchronized (this) {
+            Entry entry = this.entries.get(code);
+            if (entry != null) {
+                // compiled concurrently by another thread, keep the cached one
+                entry.frequency++;
+                link(rule, code, entry);
+                return entry.expression;
+            }
+            while (this.entries.size() >= this.maximumSize) {
+                evict();
+            }
+            entry = new Entry(expression, classes);
+            this.entries.put(code, entry);
+            this.classCount += classes;
+            link(rule, code, entry);
+            return expression;
+        }
+    }
+
+    /**
+     * Removes the expressions compiled for a rule.
+     *
+     * @param rule the Rhythmix source of the rule, or a translated code
+     * @return {@code true} if an expression was removed
+     */
+    public synchronized boolean invalidate(String rule) {
+        boolean removed = remove(rule);
+        Set<String> codes = this.codesByRule.get(rule);
+        if (codes != null) {
+            for (String code : new HashSet<>(codes)) {
+                removed |= remove(code);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every expression of the cache. The counters are kept.
+     */
+    public synchronized void invalidateAll() {
+        this.entries.clear();
+        this.codesByRule.clear();
+        this.classCount = 0;
+    }
+
+    /**
+     * Gets the number of cached expressions.
+     *
+     * @return the cache size
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Gets the number of lookups that found a cached expression.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Gets the number of lookups that compiled a new expression.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Gets the number of expressions removed to make room for new ones.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Gets an estimate of the classes loaded for the cached expressions, measured as the classes
+     * the JVM loaded while compiling each of them. Compilations running concurrently may count
+     * each other's classes, so this is an upper bound.
+     *
+     * @return the estimated number of loaded classes held by the cache
+     */
+    public synchronized long getLoadedClassCount() {
+        return this.classCount;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = this.entries.entrySet().iterator();
+        String victim = it.next().getKey();
+        if (this.evictionPolicy == EvictionPolicy.LFU) {
+            long min = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> e : this.entries.entrySet()) {
+                if (e.getValue().frequency < min) {
+                    min = e.getValue().frequency;
+                    victim = e.getKey();
+                }
+            }
+        }
+        remove(victim);
+        this.evictionCount++;
+    }
+
+    private boolean remove(String code) {
+        Entry entry = this.entries.remove(code);
+        if (entry == null) {
+            return false;
+        }
+        this.classCount -= entry.classes;
+        for (String rule : entry.rules) {
+            Set<String> codes = this.codesByRule.get(rule);
+            if (codes != null && codes.remove(code) && codes.isEmpty()) {
+                this.codesByRule.remove(rule);
+            }
+        }
+        return true;
+    }
+
+    private void link(String rule, String code, Entry entry) {
+        if (rule != null && entry.rules.add(rule)) {
+            this.codesByRule.computeIfAbsent(rule, k -> new HashSet<>()).add(code);
+        }
+    }
+
+    private static final class Entry {
+        private final Expression expression;
+        private final long classes;
+        private final Set<String> rules = new HashSet<>(1);
+        private long frequency = 1;
+
+        private Entry(Expression expression, long classes) {
+            this.expression = expression;
+            this.classes = classes;
+        }
+    }
+}
@@ -11,7 +11,13 @@ import io.github.mfinnnne.rhythmix.udf.FilterUDFRegistry;
 import io.github.mfinnnne.rhythmix.udf.MeetUDFRegistry;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 /**
  * The main compiler for the Rhythmix language.
@@ -33,7 +39,7 @@ import java.util.HashMap;
 @Slf4j
 public class RhythmixCompiler {
     static {
-        Register.importFunction();
+        Register.importUDFs();
     }
 
     /**
@@ -45,13 +51,25 @@ public class RhythmixCompiler {
      * @throws TranslatorException if a compilation error occurs
      */
     public static RhythmixExecutor compile(String code) throws TranslatorException {
+        return compile(code, RhythmixRuntime.getDefault());
+    }
+
+    /**
+     * Compiles Rhythmix source code into an executable form with the given runtime.
+     *
+     * @param code    the Rhythmix source code to compile
+     * @param runtime the runtime compiling and running the rule
+     * @return a {@link RhythmixExecutor} instance ready for execution
+     * @throws TranslatorException if a compilation error occurs
+     */
+    public static RhythmixExecutor compile(String code, RhythmixRuntime runtime) throws TranslatorException {
         try {
             EnvProxy env = new EnvProxy();
             env.rawPut("filterUDFMap", FilterUDFRegistry.getRegisteredUdfs());
             env.rawPut("calculatorUDFMap", CalculatorUDFRegistry.getRegisteredUdfs());
             env.rawPut("meetUDFMap", MeetUDFRegistry.getRegisteredUdfs());
             String translatedCode = Translator.translate(code, env);
-            return new RhythmixExecutor(translatedCode, env);
+            return newExecutor(code, translatedCode, env, runtime);
         } catch (RhythmixException e) {
             String formattedError = ErrorFormatter.formatError(e, code);
             throw new TranslatorException(formattedError);
@@ -67,6 +85,19 @@ public class RhythmixCompiler {
      * @throws TranslatorException if a compilation error occurs
      */
     public static RhythmixExecutor compile(String code, HashMap<String, Object> udfEnv) throws TranslatorException {
+        return compile(code, udfEnv, RhythmixRuntime.getDefault());
+    }
+
+    /**
+     * Compiles Rhythmix source code with a custom UDF environment with the given runtime.
+     *
+     * @param code    the Rhythmix source code to compile
+     * @param udfEnv  a {@link HashMap} containing custom UDFs to be made available during compilation and execution
+     * @param runtime the runtime compiling and running the rule
+     * @return a {@link RhythmixExecutor} instance ready for execution
+     * @throws TranslatorException if a compilation error occurs
+     */
+    public static RhythmixExecutor compile(String code, HashMap<String, Object> udfEnv, RhythmixRuntime runtime) throws TranslatorException {
         try {
             EnvProxy env = new EnvProxy();
             env.rawPutAll(udfEnv);
@@ -74,7 +105,7 @@ public class RhythmixCompiler {
             env.rawPut("filterUDFMap", FilterUDFRegistry.getRegisteredUdfs());
             env.rawPut("calculatorUDFMap", CalculatorUDFRegistry.getRegisteredUdfs());
             env.rawPut("meetUDFMap", MeetUDFRegistry.getRegisteredUdfs());
-            return new RhythmixExecutor(translatedCode, env);
+            return newExecutor(code, translatedCode, env, runtime);
         } catch (RhythmixException e) {
             // Use ErrorFormatter.formatError() to display the error with source code context
             String formattedError = ErrorFormatter.formatError(e, code);
@@ -83,6 +114,31 @@ public class RhythmixCompiler {
         }
     }
 
+    /**
+     * Compiles Rhythmix source code into a shareable {@link RhythmixProgram}.
+     * The program is translated and compiled once; use {@link RhythmixProgram#newState()} to
+     * create one state per monitored entity.
+     *
+     * @param code the Rhythmix source code to compile
+     * @return a {@link RhythmixProgram} instance
+     * @throws TranslatorException if a compilation error occurs
+     */
+    public static RhythmixProgram compileProgram(String code) throws TranslatorException {
+        return compile(code).getProgram();
+    }
+
+    /**
+     * Compiles Rhythmix source code with a custom UDF environment into a shareable {@link RhythmixProgram}.
+     *
+     * @param code   the Rhythmix source code to compile
+     * @param udfEnv a {@link HashMap} containing custom UDFs shared by every state of the program
+     * @return a {@link RhythmixProgram} instance
+     * @throws TranslatorException if a compilation error occurs
+     */
+    public static RhythmixProgram compileProgram(String code, HashMap<String, Object> udfEnv) throws TranslatorException {
+        return compile(code, udfEnv).getProgram();
+    }
+
 
     /**
      * Compiles source code with a custom UDF environment and returns detailed error information if compilation fails.
@@ -101,6 +157,48 @@ public class RhythmixCompiler {
         }
     }
 
+    /**
+     * Compiles many rules in parallel on the common {@link ForkJoinPool}.
+     * <p>
+     * Every compilation uses its own naming context, so rules can be translated concurrently.
+     * A rule that fails to compile does not stop the others; its result carries the error.
+     *
+     * @param codes the Rhythmix source codes to compile
+     * @return one {@link CompilationResult} per rule, in the iteration order of {@code codes}
+     */
+    public static List<CompilationResult> compileAll(Collection<String> codes) {
+        return compileAll(codes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compiles many rules in parallel on the given {@link ForkJoinPool}.
+     *
+     * @param codes the Rhythmix source codes to compile
+     * @param pool  the pool running the compilations
+     * @return one {@link CompilationResult} per rule, in the iteration order of {@code codes}
+     */
+    public static List<CompilationResult> compileAll(Collection<String> codes, ForkJoinPool pool) {
+        List<String> rules = new ArrayList<>(codes);
+        try {
+            return pool.submit(() -> rules.parallelStream()
+                    .map(code -> compileWithDetailedErrors(code, null))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while compiling rules", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to compile rules", e.getCause());
+        }
+    }
+
+    /**
+     * Creates the executor of a translated rule, compiling it through the {@link ExpressionCache}
+     * of the runtime so the rule can later be invalidated by its source.
+     */
+    private static RhythmixExecutor newExecutor(String code, String translatedCode, EnvProxy env, RhythmixRuntime runtime) {
+        return new RhythmixExecutor(translatedCode, env, runtime.getExpressionCache().get(code, translatedCode));
+    }
+
     /**
      * Represents the result of a compilation operation.
      * <p>
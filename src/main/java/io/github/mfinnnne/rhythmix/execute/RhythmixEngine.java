@@ -0,0 +1,322 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Evaluates one compiled rule against a stream that interleaves many entities.
+ * <p>
+ * A {@link RhythmixExecutor} holds the state of a single stream, so feeding it events of
+ * several devices mixes their windows and counters. The engine extracts a key from every
+ * event (for example {@link RhythmixEventData#getCode()}) and keeps an isolated
+ * {@link RhythmixState} per key, created on first use from the shared {@link RhythmixProgram}.
+ * <p>
+ * Keys are spread over a fixed number of worker threads. All events of one key are handled
+ * by the same worker, in submission order, so per-key state is confined to that thread and
+ * needs no lock; different keys are evaluated in parallel.
+ * <p>
+ * Typical usage:
+ * <pre>{@code
+ * RhythmixEngine engine = RhythmixEngine.builder(RhythmixCompiler.compileProgram("count(>4,3)"))
+ *         .keyByCode()
+ *         .workers(4)
+ *         .onMatch((key, event) -> alarm(key))
+ *         .build();
+ * engine.submit(event);
+ * engine.close();
+ * }</pre>
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+@Slf4j
+public class RhythmixEngine implements AutoCloseable {
+
+    private final RhythmixProgram program;
+
+    private final Function<Object, ?> keyExtractor;
+
+    private final BiConsumer<Object, Object> matchListener;
+
+    private final Worker[] workers;
+
+    private RhythmixEngine(Builder builder) {
+        this.program = builder.program;
+        this.keyExtractor = builder.keyExtractor;
+        this.matchListener = builder.matchListener;
+        this.workers = new Worker[builder.workers];
+        for (int i = 0; i < this.workers.length; i++) {
+            this.workers[i] = new Worker(builder.threadNamePrefix + i);
+        }
+    }
+
+    /**
+     * Creates a builder for an engine running the given program.
+     *
+     * @param program the compiled rule
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(RhythmixProgram program) {
+        return new Builder(program);
+    }
+
+    /**
+     * Creates a builder for an engine running the rule of the given executor.
+     * Only the executor's program is used, its own state is left untouched.
+     *
+     * @param executor the compiled rule
+     * @return a new {@link Builder}
+     */
+    public static Builder builder(RhythmixExecutor executor) {
+        return new Builder(executor.getProgram());
+    }
+
+    /**
+     * Submits an event for evaluation against the state of its key.
+     * <p>
+     * The returned future completes on the worker thread with the result of the rule for this
+     * event. If the rule matches, the match listener is invoked before the future completes.
+     *
+     * @param event the event to evaluate
+     * @return a future holding {@code true} if the rule matched for the event's key
+     */
+    public CompletableFuture<Boolean> submit(Object event) {
+        Object key;
+        try {
+            key = Objects.requireNonNull(this.keyExtractor.apply(event), "event key must not be null");
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return workerOf(key).submit(key, event);
+    }
+
+    /**
+     * Drops the state kept for a key, e.g. when a device goes offline.
+     * The next event of this key starts from the initial state again.
+     *
+     * @param key the key to forget
+     * @return a future completing once the state has been removed
+     */
+    public CompletableFuture<Void> removeKey(Object key) {
+        return workerOf(key).remove(key);
+    }
+
+    /**
+     * Gets the number of keys that currently have a state.
+     *
+     * @return the number of live keys
+     */
+    public int getKeyCount() {
+        int count = 0;
+        for (Worker worker : this.workers) {
+            count += worker.keyCount.get();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of worker threads.
+     *
+     * @return the worker count
+     */
+    public int getWorkerCount() {
+        return this.workers.length;
+    }
+
+    /**
+     * Stops accepting events and waits for already submitted events to be evaluated.
+     */
+    @Override
+    public void close() {
+        for (Worker worker : this.workers) {
+            worker.thread.shutdown();
+        }
+        for (Worker worker : this.workers) {
+            try {
+                if (!worker.thread.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.warn("rhythmix engine worker did not terminate in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Worker workerOf(Object key) {
+        int hash = key.hashCode();
+        return this.workers[Math.floorMod(hash ^ (hash >>> 16), this.workers.length)];
+    }
+
+    /**
+     * A single thread owning the states of the keys routed to it.
+     */
+    private final class Worker {
+
+        private final ExecutorService thread;
+
+        /**
+         * Only accessed from {@link #thread}.
+         */
+        private final Map<Object, RhythmixState> states = new HashMap<>();
+
+        private final AtomicInteger keyCount = new AtomicInteger();
+
+        private Worker(String name) {
+            this.thread = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, name);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        private CompletableFuture<Boolean> submit(Object key, Object event) {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            try {
+                this.thread.execute(() -> {
+                    try {
+                        boolean matched = stateOf(key).execute(event);
+                        if (matched && matchListener != null) {
+                            matchListener.accept(key, event);
+                        }
+                        future.complete(matched);
+                    } catch (Throwable e) {
+                        log.error("rhythmix engine failed to evaluate event of key {}", key, e);
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        private CompletableFuture<Void> remove(Object key) {
+            return CompletableFuture.runAsync(() -> {
+                if (this.states.remove(key) != null) {
+                    this.keyCount.decrementAndGet();
+                }
+            }, this.thread);
+        }
+
+        private RhythmixState stateOf(Object key) {
+            RhythmixState state = this.states.get(key);
+            if (state == null) {
+                state = program.newState();
+                this.states.put(key, state);
+                this.keyCount.incrementAndGet();
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Builder for {@link RhythmixEngine}.
+     */
+    public static final class Builder {
+
+        private final RhythmixProgram program;
+
+        private Function<Object, ?> keyExtractor;
+
+        private BiConsumer<Object, Object> matchListener;
+
+        private int workers = Runtime.getRuntime().availableProcessors();
+
+        private String threadNamePrefix = "rhythmix-engine-";
+
+        private Builder(RhythmixProgram program) {
+            this.program = Objects.requireNonNull(program, "program must not be null");
+        }
+
+        /**
+         * Sets the function extracting the entity key from an event.
+         *
+         * @param keyExtractor the key extractor, must not return {@code null}
+         * @return this builder
+         */
+        public Builder keyBy(Function<Object, ?> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+            return this;
+        }
+
+        /**
+         * Keys {@link RhythmixEventData} events by their code.
+         *
+         * @return this builder
+         */
+        public Builder keyByCode() {
+            return keyBy(event -> ((RhythmixEventData) event).getCode());
+        }
+
+        /**
+         * Keys {@link RhythmixEventData} events by their serial number.
+         *
+         * @return this builder
+         */
+        public Builder keyBySerialNumber() {
+            return keyBy(event -> ((RhythmixEventData) event).getSerialNumber());
+        }
+
+        /**
+         * Sets the number of worker threads, defaults to the number of available processors.
+         *
+         * @param workers the number of worker threads
+         * @return this builder
+         */
+        public Builder workers(int workers) {
+            if (workers < 1) {
+                throw new IllegalArgumentException("workers must be greater than 0, got " + workers);
+            }
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Sets a listener invoked on the worker thread each time the rule matches for a key.
+         *
+         * @param matchListener receives the key and the event that completed the match
+         * @return this builder
+         */
+        public Builder onMatch(BiConsumer<Object, Object> matchListener) {
+            this.matchListener = matchListener;
+            return this;
+        }
+
+        /**
+         * Sets the name prefix of the worker threads.
+         *
+         * @param threadNamePrefix the thread name prefix
+         * @return this builder
+         */
+        public Builder threadNamePrefix(String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+            return this;
+        }
+
+        /**
+         * Builds and starts the engine.
+         *
+         * @return a new {@link RhythmixEngine}
+         */
+        public RhythmixEngine build() {
+            if (this.keyExtractor == null) {
+                throw new IllegalStateException("a key extractor is required, see keyBy/keyByCode/keyBySerialNumber");
+            }
+            return new RhythmixEngine(this);
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package io.github.mfinnnne.rhythmix.execute;
 
-import io.github.mfinnnne.rhythmix.lib.AviatorConfig;
 import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.github.mfinnnne.rhythmix.util.AviatorFunctionUtil;
 import com.googlecode.aviator.Expression;
 import lombok.*;
 
 import java.util.HashMap;
-import java.util.LinkedList;
 
 /**
  * Executes compiled Rhythmix code.
@@ -23,7 +21,6 @@ import java.util.LinkedList;
  * @version 1.0
  * @since 1.0
  */
-@AllArgsConstructor
 public class RhythmixExecutor {
 
     @Getter
@@ -36,12 +33,42 @@ public class RhythmixExecutor {
     @Setter
     private HashMap<String, Object> originalEnv = new HashMap<>();
 
+    private RhythmixProgram program;
+
+    /**
+     * The compiled expression of {@link #code}, resolved once and pinned for every execution.
+     * Executors built without translated code resolve it lazily on first execution.
+     */
+    private Expression expression;
+
+    /**
+     * Initial value of every state slot, copied back in place by {@link #resetEnv()}.
+     */
+    private Object[] initialState = new Object[0];
+
     /**
      * Default constructor.
      */
     public RhythmixExecutor() {
     }
 
+    /**
+     * Constructs a RhythmixExecutor from all of its fields.
+     *
+     * @param code        the translated code string
+     * @param envProxy    the execution environment proxy
+     * @param originalEnv the environment restored after a match
+     */
+    public RhythmixExecutor(String code, EnvProxy envProxy, HashMap<String, Object> originalEnv) {
+        this.code = code;
+        this.envProxy = envProxy;
+        this.originalEnv = originalEnv;
+        Object state = originalEnv.get(EnvProxy.STATE);
+        if (state != null) {
+            this.initialState = ((Object[]) state).clone();
+        }
+    }
+
     /**
      * Constructs a RhythmixExecutor with the translated code and execution environment.
      *
@@ -49,29 +76,81 @@ public class RhythmixExecutor {
      * @param env  the execution environment proxy
      */
     public RhythmixExecutor(String code, EnvProxy env) {
+        this(code, env, (Expression) null);
+    }
+
+    /**
+     * Constructs a RhythmixExecutor running an already compiled expression.
+     *
+     * @param code       the translated code string
+     * @param env        the execution environment proxy
+     * @param expression the compiled code, or {@code null} to look it up in the {@link ExpressionCache}
+     */
+    RhythmixExecutor(String code, EnvProxy env, Expression expression) {
         this.code = code;
         this.envProxy = env;
 
         this.originalEnv.putAll(this.envProxy.getEnv());
-        AviatorConfig.operatorOverloading();
+        this.initialState = this.envProxy.getStateValues().clone();
+        this.expression = expression != null ? expression : AviatorFunctionUtil.getExpr(code);
     }
 
     /**
-     * Gets a fresh copy of the original environment.
-     * This is used to reset the environment state. Any {@link LinkedList} instances
-     * are replaced with new, empty instances to clear their state.
+     * Gets the original environment.
+     * This is the environment new program states are created from.
      *
-     * @return a clean initial environment map
+     * @return the initial environment map
      */
     public HashMap<String, Object> getOriginalEnv() {
-        this.originalEnv.forEach((k, v) -> {
-            if (v instanceof LinkedList) {
-                this.originalEnv.put(k, new LinkedList<>());
-            }
-        });
         return originalEnv;
     }
 
+    /**
+     * Creates a new executor running the same translated code with its own, freshly
+     * initialized state.
+     * <p>
+     * State variables created by the translator (queues, counters...) are re-created empty,
+     * everything else in the environment (UDF maps, user supplied values) is shared with this
+     * executor. The returned executor is independent, so it can be used to evaluate the same
+     * rule for another entity of the stream.
+     *
+     * @return a new executor with an initial state
+     */
+    public synchronized RhythmixExecutor fork() {
+        EnvProxy env = this.envProxy.withEnv(this.getProgram().newState().getEnv());
+        return new RhythmixExecutor(this.code, env, this.getExpression());
+    }
+
+    /**
+     * Gets the compiled, immutable part of this executor.
+     * The program is created on first access from the original environment and can be used to
+     * create many lightweight {@link RhythmixState} instances of the same rule.
+     *
+     * @return the program of this executor
+     */
+    public synchronized RhythmixProgram getProgram() {
+        if (this.program == null) {
+            this.program = new RhythmixProgram(this.code, this.getExpression(), this.getOriginalEnv(),
+                    this.envProxy.getStateNames(), this.initialState);
+        }
+        return this.program;
+    }
+
+    /**
+     * Gets the compiled expression of this executor, resolving it on first use if it was not
+     * pinned at construction.
+     *
+     * @return the compiled {@link Expression}
+     */
+    public Expression getExpression() {
+        Expression expr = this.expression;
+        if (expr == null) {
+            expr = AviatorFunctionUtil.getExpr(this.code);
+            this.expression = expr;
+        }
+        return expr;
+    }
+
     /**
      * Executes the compiled code against a single event.
      * The environment is reset if the execution returns {@code true}.
@@ -81,8 +160,7 @@ public class RhythmixExecutor {
      */
     public synchronized boolean execute(Object event) {
         this.envProxy.rawPut("event", event);
-        Expression expr = AviatorFunctionUtil.getExpr(code);
-        Object res = expr.execute(envProxy.getEnv());
+        Object res = this.getExpression().execute(envProxy.getEnv());
         Boolean res1 = (Boolean) res;
         if (res1) {
             resetEnv();
@@ -92,11 +170,12 @@ public class RhythmixExecutor {
 
     /**
      * Resets the execution environment to its original state.
-     * This clears any accumulated state from previous executions.
+     * Every state slot is re-initialized in place with the value it had when the executor was
+     * created; the environment map itself is left untouched.
      */
     public void resetEnv() {
-        this.envProxy.getEnv().clear();
-        this.envProxy.getEnv().putAll(this.getOriginalEnv());
+        Object[] state = this.envProxy.getStateValues();
+        System.arraycopy(this.initialState, 0, state, 0, Math.min(state.length, this.initialState.length));
     }
 
     /**
@@ -108,7 +187,7 @@ public class RhythmixExecutor {
      */
     public synchronized boolean execute(Object... events) {
         boolean res = false;
-        Expression expr = AviatorFunctionUtil.getExpr(code);
+        Expression expr = this.getExpression();
         for (Object event : events) {
             this.envProxy.rawPut("event", event);
             res = (Boolean) expr.execute(envProxy.getEnv());
@@ -0,0 +1,144 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import io.github.mfinnnne.rhythmix.lib.ChainQueue;
+import io.github.mfinnnne.rhythmix.lib.ExponentialStats;
+import io.github.mfinnnne.rhythmix.lib.HitCounter;
+import io.github.mfinnnne.rhythmix.lib.NumericChainQueue;
+import io.github.mfinnnne.rhythmix.lib.NumericColumns;
+import io.github.mfinnnne.rhythmix.lib.TimeWindow;
+import io.github.mfinnnne.rhythmix.lib.WindowAccumulator;
+import io.github.mfinnnne.rhythmix.translate.EnvProxy;
+import io.github.mfinnnne.rhythmix.util.AviatorFunctionUtil;
+import com.googlecode.aviator.Expression;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable, compiled Rhythmix rule.
+ * <p>
+ * A program holds everything that does not change while events are evaluated: the translated
+ * code, the compiled Aviator {@link Expression}, the UDF maps and the initial value of every
+ * state slot. It is translated and compiled once and then creates any number of
+ * lightweight {@link RhythmixState} instances, one per monitored entity, which all share the
+ * same expression and UDF maps. Creating a state therefore only allocates the state itself.
+ * <p>
+ * Typical usage:
+ * <pre>{@code
+ * RhythmixProgram program = RhythmixCompiler.compileProgram("count(>4,3)");
+ * RhythmixState device1 = program.newState();
+ * RhythmixState device2 = program.newState();
+ * boolean matched = device1.execute(eventObject);
+ * }</pre>
+ * <p>
+ * Thread-safety: a program is safe to share between threads, a {@link RhythmixState} is not.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RhythmixProgram {
+
+    @Getter
+    private final String code;
+
+    @Getter
+    private final Expression expression;
+
+    private final String[] keys;
+
+    private final Object[] values;
+
+    private final String[] stateNames;
+
+    private final Object[] initialState;
+
+    /**
+     * Constructs a program from translated code and its initial environment.
+     *
+     * @param code         the translated code string
+     * @param expression   the compiled code, or {@code null} to compile it here
+     * @param initialEnv   the environment right after translation, before any event was executed
+     * @param stateNames   the name of every state slot, see {@link EnvProxy#getStateNames()}
+     * @param initialState the initial value of every state slot
+     */
+    public RhythmixProgram(String code, Expression expression, Map<String, Object> initialEnv,
+                           String[] stateNames, Object[] initialState) {
+        this.code = code;
+        int size = initialEnv.size() - (initialEnv.containsKey(EnvProxy.STATE) ? 1 : 0);
+        this.keys = new String[size];
+        this.values = new Object[size];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : initialEnv.entrySet()) {
+            if (!EnvProxy.STATE.equals(entry.getKey())) {
+                this.keys[i] = entry.getKey();
+                this.values[i] = entry.getValue();
+                i++;
+            }
+        }
+        this.stateNames = stateNames.clone();
+        this.initialState = initialState.clone();
+        if (expression == null) {
+            expression = AviatorFunctionUtil.getExpr(code);
+        }
+        this.expression = expression;
+    }
+
+    /**
+     * Creates a new state with the initial value of every state variable.
+     *
+     * @return a new, independent {@link RhythmixState}
+     */
+    public RhythmixState newState() {
+        Object[] slots = new Object[this.initialState.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = freshState(this.initialState[i]);
+        }
+        HashMap<String, Object> env = new HashMap<>((int) ((this.keys.length + 2) / 0.75f) + 1);
+        for (int i = 0; i < this.keys.length; i++) {
+            env.put(this.keys[i], this.values[i]);
+        }
+        env.put(EnvProxy.STATE, slots);
+        return new RhythmixState(this, env, slots);
+    }
+
+    String[] stateNames() {
+        return this.stateNames;
+    }
+
+    /**
+     * Copies the initial value of a state variable. Immutable values are shared, a mutable
+     * value this program does not know how to copy is an error rather than shared by every state.
+     */
+    private static Object freshState(Object value) {
+        if (value == null || value instanceof Number || value instanceof String || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof NumericChainQueue) {
+            return new NumericChainQueue(((ChainQueue) value).capacity(), ((ChainQueue) value).isBounded());
+        }
+        if (value instanceof ChainQueue) {
+            return new ChainQueue(((ChainQueue) value).capacity(), ((ChainQueue) value).isBounded());
+        }
+        if (value instanceof ChainQueue.View) {
+            return new ChainQueue.View();
+        }
+        if (value instanceof TimeWindow) {
+            return new TimeWindow(((TimeWindow) value).getLength());
+        }
+        if (value instanceof WindowAccumulator) {
+            return ((WindowAccumulator) value).emptyCopy();
+        }
+        if (value instanceof HitCounter) {
+            return new HitCounter();
+        }
+        if (value instanceof NumericColumns) {
+            return new NumericColumns();
+        }
+        if (value instanceof ExponentialStats) {
+            return ((ExponentialStats) value).emptyCopy();
+        }
+        throw new IllegalStateException("No fresh copy of state " + value.getClass().getName());
+    }
+}
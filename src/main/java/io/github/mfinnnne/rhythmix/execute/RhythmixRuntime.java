@@ -0,0 +1,159 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import com.googlecode.aviator.AviatorEvaluator;
+import com.googlecode.aviator.AviatorEvaluatorInstance;
+import com.googlecode.aviator.Options;
+import com.googlecode.aviator.runtime.type.AviatorFunction;
+import io.github.mfinnnne.rhythmix.config.RhythmixRuntimeOptions;
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.lib.AviatorConfig;
+import io.github.mfinnnne.rhythmix.lib.Register;
+import io.github.mfinnnne.rhythmix.udf.CalculatorUDFRegistry;
+import io.github.mfinnnne.rhythmix.udf.FilterUDFRegistry;
+import io.github.mfinnnne.rhythmix.udf.MeetUDFRegistry;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The Aviator instance Rhythmix rules are compiled and run with.
+ * <p>
+ * A runtime creates its own {@link AviatorEvaluatorInstance}, registers the Rhythmix comparison
+ * operators and built-in functions on it once, and compiles through its own
+ * {@link ExpressionCache}. The global {@link AviatorEvaluator} instance is left untouched, so
+ * other Aviator users of the application are not affected.
+ * <p>
+ * Instance functions of the UDFs (e.g. {@code numericFilter.filter}) are bound on their first
+ * call, so UDFs registered after the runtime was created are found too. Chain expressions do
+ * not go through them: their UDFs are bound at translation, see
+ * {@link io.github.mfinnnne.rhythmix.udf.UDFFunctions}.
+ * <p>
+ * {@link RhythmixCompiler} uses the {@link #getDefault() default runtime} unless told otherwise.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RhythmixRuntime {
+
+    private static volatile RhythmixRuntime defaultRuntime;
+
+    @Getter
+    private final RhythmixRuntimeOptions options;
+
+    @Getter
+    private final AviatorEvaluatorInstance evaluator;
+
+    @Getter
+    private final ExpressionCache expressionCache;
+
+    private final Set<String> boundUDFs = new HashSet<>();
+
+    /**
+     * Creates a runtime with the given options.
+     *
+     * @param options the runtime options
+     */
+    public RhythmixRuntime(RhythmixRuntimeOptions options) {
+        this.options = options;
+        this.evaluator = AviatorEvaluator.newInstance(options.getEvalMode());
+        this.evaluator.setOption(Options.OPTIMIZE_LEVEL, options.getOptimizeLevel());
+        AviatorConfig.operatorOverloading(this.evaluator);
+        Register.importFunctions(this.evaluator);
+        this.evaluator.addFunctionLoader(this::loadUDFFunction);
+        this.expressionCache = new ExpressionCache(this.evaluator, options.getExpressionCacheSize(),
+                options.getEvictionPolicy());
+    }
+
+    /**
+     * Gets the runtime used by {@link RhythmixCompiler}, created with the default options unless
+     * replaced with {@link #setDefault}.
+     *
+     * @return the default runtime
+     */
+    public static RhythmixRuntime getDefault() {
+        if (defaultRuntime == null) {
+            synchronized (RhythmixRuntime.class) {
+                if (defaultRuntime == null) {
+                    defaultRuntime = new RhythmixRuntime(RhythmixRuntimeOptions.defaults());
+                }
+            }
+        }
+        return defaultRuntime;
+    }
+
+    /**
+     * Replaces the runtime used by {@link RhythmixCompiler}. Executors already compiled keep
+     * running with the runtime they were compiled with.
+     *
+     * @param runtime the new default runtime
+     */
+    public static void setDefault(RhythmixRuntime runtime) {
+        if (runtime == null) {
+            throw new IllegalArgumentException("runtime must not be null");
+        }
+        synchronized (RhythmixRuntime.class) {
+            defaultRuntime = runtime;
+        }
+    }
+
+    /**
+     * Compiles Rhythmix source code with this runtime.
+     *
+     * @param code the Rhythmix source code to compile
+     * @return a {@link RhythmixExecutor} instance ready for execution
+     * @throws TranslatorException if a compilation error occurs
+     */
+    public RhythmixExecutor compile(String code) throws TranslatorException {
+        return RhythmixCompiler.compile(code, this);
+    }
+
+    /**
+     * Compiles Rhythmix source code with a custom UDF environment with this runtime.
+     *
+     * @param code   the Rhythmix source code to compile
+     * @param udfEnv a {@link HashMap} containing custom UDFs
+     * @return a {@link RhythmixExecutor} instance ready for execution
+     * @throws TranslatorException if a compilation error occurs
+     */
+    public RhythmixExecutor compile(String code, HashMap<String, Object> udfEnv) throws TranslatorException {
+        return RhythmixCompiler.compile(code, udfEnv, this);
+    }
+
+    /**
+     * Binds the instance functions of a UDF the first time one of them is called.
+     *
+     * @param name the function name, {@code udfName.method}
+     * @return the function, or {@code null} if it is not a UDF function
+     */
+    private AviatorFunction loadUDFFunction(String name) {
+        int dot = name.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        String udfName = name.substring(0, dot);
+        Object udf = FilterUDFRegistry.getFilterUDF(udfName);
+        if (udf == null) {
+            udf = CalculatorUDFRegistry.getCalculatorUDF(udfName);
+        }
+        if (udf == null) {
+            udf = MeetUDFRegistry.getMeetUDF(udfName);
+        }
+        if (udf == null) {
+            return null;
+        }
+        synchronized (this.boundUDFs) {
+            if (this.boundUDFs.add(udfName)) {
+                try {
+                    this.evaluator.addInstanceFunctions(udfName, udf.getClass());
+                } catch (IllegalAccessException | NoSuchMethodException e) {
+                    throw new IllegalStateException("Failed to bind UDF " + udfName, e);
+                }
+            }
+        }
+        Object function = this.evaluator.getFuncMap().get(name);
+        return function instanceof AviatorFunction ? (AviatorFunction) function : null;
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import io.github.mfinnnne.rhythmix.translate.EnvProxy;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The mutable state of one {@link RhythmixProgram} instance.
+ * <p>
+ * A state only holds the values that change while events are evaluated (queues, counters,
+ * timestamps...), stored in a slot array under {@link EnvProxy#STATE}. The compiled expression
+ * and the UDF maps are shared with every other state of the same program, so states are cheap
+ * to create and can be kept per monitored entity.
+ * <p>
+ * Thread-safety: a state is not thread-safe, it must be confined to one thread at a time
+ * (see {@link RhythmixEngine}).
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RhythmixState {
+
+    @Getter
+    private final RhythmixProgram program;
+
+    @Getter
+    private final HashMap<String, Object> env;
+
+    private final Object[] slots;
+
+    private final Object[] initialSlots;
+
+    RhythmixState(RhythmixProgram program, HashMap<String, Object> env, Object[] slots) {
+        this.program = program;
+        this.env = env;
+        this.slots = slots;
+        this.initialSlots = slots.clone();
+    }
+
+    /**
+     * Executes the program against a single event.
+     * The state is reset if the execution returns {@code true}.
+     *
+     * @param event the event data to process
+     * @return {@code true} if the expression's conditions are met; {@code false} otherwise
+     */
+    public boolean execute(Object event) {
+        this.env.put("event", event);
+        boolean res = (Boolean) this.program.getExpression().execute(this.env);
+        if (res) {
+            reset();
+        }
+        return res;
+    }
+
+    /**
+     * Executes the program against a sequence of events.
+     * The state is reset if the final execution returns {@code true}.
+     *
+     * @param events a variable number of event data objects to process in sequence
+     * @return {@code true} if the expression's conditions are met after processing all events; {@code false} otherwise
+     */
+    public boolean execute(Object... events) {
+        boolean res = false;
+        for (Object event : events) {
+            this.env.put("event", event);
+            res = (Boolean) this.program.getExpression().execute(this.env);
+        }
+        if (res) {
+            reset();
+        }
+        return res;
+    }
+
+    /**
+     * Restores every slot of this state to the value it had when the state was created.
+     */
+    public void reset() {
+        System.arraycopy(this.initialSlots, 0, this.slots, 0, this.slots.length);
+    }
+
+    /**
+     * Gets the current value of every state variable, by name.
+     * Intended for inspection and debugging; the map is a copy.
+     *
+     * @return the state variables
+     */
+    public Map<String, Object> getStates() {
+        String[] names = this.program.stateNames();
+        Map<String, Object> states = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            states.put(names[i], this.slots[i]);
+        }
+        return states;
+    }
+}
@@ -1,18 +1,18 @@
 package io.github.mfinnnne.rhythmix.lib;
 
 import com.googlecode.aviator.AviatorEvaluator;
+import com.googlecode.aviator.AviatorEvaluatorInstance;
 import com.googlecode.aviator.lexer.token.OperatorType;
 import com.googlecode.aviator.runtime.function.AbstractFunction;
 import com.googlecode.aviator.runtime.type.AviatorBoolean;
 import com.googlecode.aviator.runtime.type.AviatorObject;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Optimized Aviator configuration for type-agnostic comparison operations.
  * <p>
- * Provides enhanced performance through caching, early type detection, and optimized
+ * Provides enhanced performance through early type detection and optimized
  * comparison logic. Registers overloaded comparison operators that work consistently
  * across numbers, booleans, strings, and nulls.
  *
@@ -33,13 +33,6 @@ public class AviatorConfig {
     private static final String TRUE_STR = "true";
     private static final String FALSE_STR = "false";
 
-    // Cache for type detection results to avoid repeated parsing
-    private static final ConcurrentHashMap<String, ValueType> TYPE_CACHE = new ConcurrentHashMap<>(256);
-    private static final ConcurrentHashMap<String, Number> NUMERIC_CACHE = new ConcurrentHashMap<>(128);
-
-    // Maximum cache size to prevent memory leaks
-    private static final int MAX_CACHE_SIZE = 1000;
-
     /**
      * Enum representing the detected type of a value for optimized processing
      */
@@ -80,27 +73,39 @@ public class AviatorConfig {
     }
 
     /**
-     * Registers overloaded comparison operators with Aviator.
-     * Should be invoked once during application initialization.
+     * Registers overloaded comparison operators with the global Aviator instance.
+     * Rhythmix itself does not use the global instance, see
+     * {@link io.github.mfinnnne.rhythmix.execute.RhythmixRuntime}.
      */
     public static void operatorOverloading() {
+        operatorOverloading(AviatorEvaluator.getInstance());
+    }
+
+    /**
+     * Registers overloaded comparison operators with an Aviator instance.
+     * Should be invoked once, when the instance is created.
+     *
+     * @param instance the instance to register the operators with
+     */
+    public static void operatorOverloading(AviatorEvaluatorInstance instance) {
         // Register all comparison operators using the unified approach
-        registerOperator(OperatorType.GT, ComparisonOp.GT);
-        registerOperator(OperatorType.GE, ComparisonOp.GTE);
-        registerOperator(OperatorType.LT, ComparisonOp.LT);
-        registerOperator(OperatorType.LE, ComparisonOp.LTE);
-        registerOperator(OperatorType.EQ, ComparisonOp.EQ);
-        registerOperator(OperatorType.NEQ, ComparisonOp.NEQ);
+        registerOperator(instance, OperatorType.GT, ComparisonOp.GT);
+        registerOperator(instance, OperatorType.GE, ComparisonOp.GTE);
+        registerOperator(instance, OperatorType.LT, ComparisonOp.LT);
+        registerOperator(instance, OperatorType.LE, ComparisonOp.LTE);
+        registerOperator(instance, OperatorType.EQ, ComparisonOp.EQ);
+        registerOperator(instance, OperatorType.NEQ, ComparisonOp.NEQ);
     }
 
     /**
      * Unified operator registration method with optimized comparison logic.
      *
+     * @param instance     the Aviator instance to register the operator with
      * @param operatorType the Aviator operator type to override
      * @param operation    the comparison operation to perform
      */
-    private static void registerOperator(OperatorType operatorType, ComparisonOp operation) {
-        AviatorEvaluator.getInstance().addOpFunction(operatorType, new AbstractFunction() {
+    private static void registerOperator(AviatorEvaluatorInstance instance, OperatorType operatorType, ComparisonOp operation) {
+        instance.addOpFunction(operatorType, new AbstractFunction() {
             @Override
             public String getName() {
                 return operatorType.getToken();
@@ -113,15 +118,9 @@ public class AviatorConfig {
                     int compareResult = left.compare(right, map);
                     return AviatorBoolean.valueOf(operation.evaluate(compareResult));
                 }
-                Object leftValue = left.getValue(map);
-               if(left.getValue(map) instanceof  String && isNumericFast(leftValue+"")){
-                   if (detectValueType(leftValue+"")==ValueType.DOUBLE){
-                       leftValue = Double.parseDouble(leftValue+"");
-                   }
-                   if (detectValueType(leftValue+"")==ValueType.INTEGER){
-                       leftValue = Integer.parseInt(leftValue+"");
-                   }
-               }
+                // Numeric strings are parsed once; rules comparing with a literal already
+                // coerce the value with Coerce, this covers dynamic operands
+                Object leftValue = Coerce.num(left.getValue(map));
                 Object rightValue = right.getValue(map);
                 int compareResult = compareValues(leftValue, rightValue);
                 return AviatorBoolean.valueOf(operation.evaluate(compareResult));
@@ -130,7 +129,7 @@ public class AviatorConfig {
     }
 
     /**
-     * Optimized comparison method with caching and early type detection.
+     * Optimized comparison method with early type detection.
      *
      * @param leftValue  left operand (may be {@code null})
      * @param rightValue right operand (may be {@code null})
@@ -149,7 +148,7 @@ public class AviatorConfig {
         String leftStr = String.valueOf(leftValue);
         String rightStr = String.valueOf(rightValue);
 
-        // Get cached or detect types
+        // Detect types
         ValueType leftType = getValueType(leftStr);
         ValueType rightType = getValueType(rightStr);
 
@@ -218,13 +217,13 @@ public class AviatorConfig {
     private static int compareMixedTypes(String leftStr, String rightStr, ValueType leftType, ValueType rightType) {
         // Numeric vs Boolean
         if (isNumericType(leftType) && isBooleanType(rightType)) {
-            Number leftNum = getCachedNumber(leftStr);
+            Number leftNum = parseNumber(leftStr);
             int boolValue = (rightType == ValueType.BOOLEAN_TRUE) ? 1 : 0;
             return Double.compare(leftNum.doubleValue(), boolValue);
         }
         if (isBooleanType(leftType) && isNumericType(rightType)) {
             int boolValue = (leftType == ValueType.BOOLEAN_TRUE) ? 1 : 0;
-            Number rightNum = getCachedNumber(rightStr);
+            Number rightNum = parseNumber(rightStr);
             return Double.compare(boolValue, rightNum.doubleValue());
         }
 
@@ -256,29 +255,14 @@ public class AviatorConfig {
     }
 
     /**
-     * Gets or detects the type of a string value with caching.
+     * Detects the type of a string value.
      *
      * @param str input string
      * @return detected {@link ValueType}
      */
     private static ValueType getValueType(String str) {
         if (str == null) return ValueType.NULL;
-
-        // Check cache first
-        ValueType cached = TYPE_CACHE.get(str);
-        if (cached != null) {
-            return cached;
-        }
-
-        // Detect type
-        ValueType type = detectValueType(str);
-
-        // Cache the result if cache isn't too large
-        if (TYPE_CACHE.size() < MAX_CACHE_SIZE) {
-            TYPE_CACHE.put(str, type);
-        }
-
-        return type;
+        return detectValueType(str);
     }
 
     /**
@@ -338,46 +322,20 @@ public class AviatorConfig {
     }
 
     /**
-     * Gets a cached numeric value or parses and caches it.
+     * Parses a numeric string.
      * Returns {@link Double#NaN} if parsing fails.
      *
      * @param str numeric string
-     * @return a cached or parsed {@link Number}
+     * @return a parsed {@link Number}
      */
-    private static Number getCachedNumber(String str) {
-        Number cached = NUMERIC_CACHE.get(str);
-        if (cached != null) {
-            return cached;
-        }
-
-        try {
-            Number number;
-            if (str.contains(".")) {
-                number = Double.parseDouble(str);
-            } else {
-                long longValue = Long.parseLong(str);
-                // Use Integer for small values to save memory
-                if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
-                    number = (int) longValue;
-                } else {
-                    number = longValue;
-                }
-            }
-
-            // Cache if not too large
-            if (NUMERIC_CACHE.size() < MAX_CACHE_SIZE) {
-                NUMERIC_CACHE.put(str, number);
-            }
-
-            return number;
-        } catch (NumberFormatException e) {
-            // Return a sentinel value that will cause string comparison fallback
-            return Double.NaN;
-        }
+    private static Number parseNumber(String str) {
+        Number number = Coerce.parseNumber(str);
+        // A sentinel value that will cause string comparison fallback
+        return number == null ? Double.NaN : number;
     }
 
     /**
-     * Optimized numeric string comparison with caching.
+     * Optimized numeric string comparison.
      *
      * @param leftStr left numeric string
      * @param rightStr right numeric string
@@ -385,8 +343,8 @@ public class AviatorConfig {
      * @return comparison result
      */
     private static int compareNumericStrings(String leftStr, String rightStr, boolean useDouble) {
-        Number leftNum = getCachedNumber(leftStr);
-        Number rightNum = getCachedNumber(rightStr);
+        Number leftNum = parseNumber(leftStr);
+        Number rightNum = parseNumber(rightStr);
 
         // Handle parsing failures
         if (Double.isNaN(leftNum.doubleValue()) || Double.isNaN(rightNum.doubleValue())) {
@@ -410,10 +368,10 @@ public class AviatorConfig {
     }
 
     /**
-     * Clears caches to prevent memory leaks in long-running applications.
+     * Formerly cleared the type and number caches. Values are now parsed at most once per
+     * comparison and nothing is cached, so this does nothing.
      */
+    @Deprecated
     public static void clearCaches() {
-        TYPE_CACHE.clear();
-        NUMERIC_CACHE.clear();
     }
 }
@@ -1,10 +1,12 @@
 package io.github.mfinnnne.rhythmix.lib;
 import io.github.mfinnnne.rhythmix.exception.ComputeException;
-import io.github.mfinnnne.rhythmix.lexer.Token;
 import com.googlecode.aviator.annotation.Import;
 import com.googlecode.aviator.annotation.ImportScope;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * A utility class providing mathematical functions for use within Aviator expressions.
@@ -24,7 +26,8 @@ public class AviatorMath {
      * Calculates the sum of a list of numeric values.
      * <p>
      * The method handles both integers and floating-point numbers. If the list contains
-     * any floats, the result will be a double; otherwise, it will be an integer.
+     * any floats, the result will be a double; otherwise, it will be an integer, or a long
+     * when the sum does not fit in an integer.
      *
      * @param values a {@link java.util.List} of objects holding event data with numeric values
      * @return a {@link java.lang.Number} representing the sum; 0 if the list is null or empty
@@ -34,14 +37,29 @@ public class AviatorMath {
         if (values == null || values.isEmpty()) {
             return 0;
         }
-        List<Token> tokens = EventUtil.event2ValueToken(values);
-        if (tokens.stream().allMatch(Token::isInteger)) {
-            return tokens.stream().mapToInt(item -> Integer.parseInt(item.getValue())).sum();
-        } else if (tokens.stream().anyMatch(Token::isFloat)) {
-            return tokens.stream().mapToDouble(item -> Double.parseDouble(item.getValue())).sum();
-        } else {
-            throw new ComputeException("该类型不能计算");
+        values = indexed(values);
+        long longSum = 0;
+        double doubleSum = 0;
+        boolean floating = false;
+        for (int i = 0; i < values.size(); i++) {
+            Number number = number(values, i);
+            if (!floating && number instanceof Long) {
+                longSum += number.longValue();
+            } else {
+                if (!floating) {
+                    floating = true;
+                    doubleSum = longSum;
+                }
+                doubleSum += number.doubleValue();
+            }
+        }
+        if (floating) {
+            return doubleSum;
+        }
+        if (longSum == (int) longSum) {
+            return (int) longSum;
         }
+        return longSum;
     }
 
     /**
@@ -77,28 +95,148 @@ public class AviatorMath {
      *
      * @param values the list of data points
      * @return the standard deviation of the values
-     * @throws ComputeException if fewer than two elements are provided
+     * @throws ComputeException if fewer than two elements are provided or any value is not numeric
      */
     public static Number stddev(List<Object> values) throws ComputeException {
         if (values.size() < 2) {
             throw new ComputeException("列表中至少需要两个数字来计算标准差");
         }
-        List<Token> tokens = EventUtil.event2ValueToken(values);
-        double[] numbers = tokens.stream().mapToDouble(item -> Double.parseDouble(item.getValue())).toArray();
-
+        values = indexed(values);
         // 计算平均值
         double sum = 0.0;
-        for (double num : numbers) {
-            sum += num;
+        for (int i = 0; i < values.size(); i++) {
+            sum += number(values, i).doubleValue();
         }
-        double mean = sum / numbers.length;
+        double mean = sum / values.size();
 
-        // 计算方差
+        // 计算方差，数值视图已缓存，第二次遍历不再解析
         double squaredDifferenceSum = 0.0;
-        for (double num : numbers) {
-            squaredDifferenceSum += Math.pow(num - mean, 2);
+        for (int i = 0; i < values.size(); i++) {
+            double diff = number(values, i).doubleValue() - mean;
+            squaredDifferenceSum += diff * diff;
         }
-        double variance = squaredDifferenceSum / numbers.length;
+        double variance = squaredDifferenceSum / values.size();
         return Math.sqrt(variance);
     }
+
+    /**
+     * Calculates the maximum of a list of numeric values.
+     *
+     * @param values a list of event objects with numeric values
+     * @return the maximum, as the value was parsed; 0 if the list is null or empty
+     * @throws ComputeException if any value is not numeric
+     */
+    public static Number max(List<Object> values) throws ComputeException {
+        return extremum(values, true);
+    }
+
+    /**
+     * Calculates the minimum of a list of numeric values.
+     *
+     * @param values a list of event objects with numeric values
+     * @return the minimum, as the value was parsed; 0 if the list is null or empty
+     * @throws ComputeException if any value is not numeric
+     */
+    public static Number min(List<Object> values) throws ComputeException {
+        return extremum(values, false);
+    }
+
+    /**
+     * Calculates the difference between the maximum and the minimum of a list of numeric values.
+     *
+     * @param values a list of event objects with numeric values
+     * @return the range; 0 if the list is null or empty
+     * @throws ComputeException if any value is not numeric
+     */
+    public static Number range(List<Object> values) throws ComputeException {
+        return difference(max(values), min(values));
+    }
+
+    /**
+     * Calculates the {@code p}-th percentile of a list of numeric values, interpolating
+     * linearly between the closest ranks.
+     *
+     * @param values a list of event objects with numeric values
+     * @param p      the percentile, from 0 to 100
+     * @return the percentile; 0 if the list is null or empty
+     * @throws ComputeException if any value is not numeric
+     */
+    public static Number percentile(List<Object> values, Number p) throws ComputeException {
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+        values = indexed(values);
+        double[] sorted = new double[values.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = number(values, i).doubleValue();
+        }
+        Arrays.sort(sorted);
+        return percentile(sorted, p.doubleValue());
+    }
+
+    /**
+     * Gets the {@code p}-th percentile of sorted values, interpolating linearly between the
+     * closest ranks.
+     */
+    static double percentile(double[] sorted, double p) {
+        double rank = (sorted.length - 1) * p / 100;
+        int lower = (int) rank;
+        if (lower + 1 >= sorted.length) {
+            return sorted[sorted.length - 1];
+        }
+        return sorted[lower] + (rank - lower) * (sorted[lower + 1] - sorted[lower]);
+    }
+
+    /**
+     * Subtracts two numbers, exactly when both are integral.
+     *
+     * @param a the minuend
+     * @param b the subtrahend
+     * @return {@code a - b}, a {@link Long} if both are integral, a {@link Double} otherwise
+     */
+    public static Number difference(Number a, Number b) {
+        if (a instanceof Double || a instanceof Float || b instanceof Double || b instanceof Float) {
+            return a.doubleValue() - b.doubleValue();
+        }
+        return a.longValue() - b.longValue();
+    }
+
+    private static Number extremum(List<Object> values, boolean max) throws ComputeException {
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+        values = indexed(values);
+        Number extremum = number(values, 0);
+        for (int i = 1; i < values.size(); i++) {
+            Number number = number(values, i);
+            double x = number.doubleValue();
+            if (max ? x > extremum.doubleValue() : x < extremum.doubleValue()) {
+                extremum = number;
+            }
+        }
+        return extremum;
+    }
+
+    /**
+     * Reads the numeric value of an element; chain queues answer from their columns without
+     * creating the event.
+     */
+    private static Number number(List<Object> values, int index) throws ComputeException {
+        Number number;
+        if (values instanceof ChainQueue) {
+            number = ((ChainQueue) values).number(index);
+        } else if (values instanceof ChainQueue.View) {
+            number = ((ChainQueue.View) values).number(index);
+        } else {
+            number = EventUtil.number(values.get(index));
+        }
+        if (number == null) {
+            throw new ComputeException("该类型不能计算");
+        }
+        return number;
+    }
+
+    private static List<Object> indexed(List<Object> values) {
+        return values instanceof RandomAccess ? values : new ArrayList<>(values);
+    }
 }
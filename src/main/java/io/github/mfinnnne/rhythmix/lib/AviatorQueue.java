@@ -18,7 +18,8 @@ import java.util.List;
  * Provides queue manipulation functions for use within Aviator expressions.
  * <p>
  * This class is imported as a static namespace 'queue', allowing Rhythmix expressions
- * to perform queue operations like creating, pushing, polling, and clearing.
+ * to perform queue operations like creating, pushing, polling, and clearing. Chain queues
+ * are {@link ChainQueue} ring buffers: push, poll, first, last and sub are O(1).
  *
  * @author MFine
  * @version 1.0
@@ -28,12 +29,12 @@ import java.util.List;
 public class AviatorQueue {
 
     /**
-     * Creates a new, empty ArrayList to be used as a queue.
+     * Creates a new, empty {@link ChainQueue}.
      *
-     * @return a new {@link java.util.ArrayList} object
+     * @return a new {@link ChainQueue} object
      */
-    public static ArrayList<Object> create() {
-        return new ArrayList<>();
+    public static ChainQueue create() {
+        return new ChainQueue();
     }
 
     /**
@@ -42,7 +43,10 @@ public class AviatorQueue {
      * @param queue the queue to poll from
      * @return the first element of the queue
      */
-    public static Object poll(ArrayList<Object> queue) {
+    public static Object poll(List<Object> queue) {
+        if (queue instanceof ChainQueue) {
+            return ((ChainQueue) queue).poll();
+        }
         return queue.remove(0);
     }
 
@@ -52,16 +56,17 @@ public class AviatorQueue {
      * @param queue  the queue to add the object to
      * @param object the object to be added
      */
-    public static void push(ArrayList<Object> queue, Object object) {
+    public static void push(List<Object> queue, Object object) {
         queue.add(object);
     }
 
     /**
-     * Removes all elements from the queue.
+     * Removes all elements from the queue. Clearing a {@link ChainQueue.View} empties the view
+     * only, not the queue it was taken from.
      *
      * @param queue the queue to be cleared
      */
-    public static void clear(ArrayList<Object> queue) {
+    public static void clear(List<Object> queue) {
         queue.clear();
     }
 
@@ -71,7 +76,7 @@ public class AviatorQueue {
      * @param queue the queue to peek into
      * @return the first element of the queue
      */
-    public static Object first(ArrayList<Object> queue) {
+    public static Object first(List<Object> queue) {
         return queue.get(0);
     }
 
@@ -81,28 +86,119 @@ public class AviatorQueue {
      * @param queue the queue to peek into
      * @return the last element of the queue
      */
-    public static Object last(ArrayList<Object> queue) {
+    public static Object last(List<Object> queue) {
         return queue.get(queue.size() - 1);
     }
 
+    /**
+     * Returns the timestamp in milliseconds of an element of the queue. Chain queues read it
+     * without creating the event.
+     *
+     * @param queue the queue
+     * @param index the index of the element
+     * @return the timestamp
+     */
+    public static long time(List<Object> queue, int index) {
+        if (queue instanceof ChainQueue) {
+            return ((ChainQueue) queue).time(index);
+        }
+        return EventUtil.time(queue.get(index));
+    }
+
+    /**
+     * Advances a time window after an event was pushed, see {@link TimeWindow#slide}.
+     *
+     * @param window    the time window
+     * @param queue     the queue holding the events
+     * @param processed the view receiving the emitted window
+     * @return {@code true} if a window is emitted
+     */
+    public static boolean slide(TimeWindow window, List<Object> queue, List<Object> processed) {
+        return window.slide((ChainQueue) queue, (ChainQueue.View) processed);
+    }
+
     /**
      * Returns a sub-list of the queue.
      * <p>
-     * If the specified range is valid, a new ArrayList containing the elements
-     * from {@code startIndex} (inclusive) to {@code endIndex} (exclusive) is returned.
-     * If the range is invalid (e.g., endIndex is out of bounds), a copy of the original queue is returned.
+     * If the specified range is valid, the elements from {@code startIndex} (inclusive) to
+     * {@code endIndex} (exclusive) are returned. If {@code endIndex} is out of bounds, the whole
+     * queue is returned. For a {@link ChainQueue} the result is a zero-copy
+     * {@link ChainQueue.View}, other lists are copied.
      *
      * @param queue      the queue to extract the sub-list from
      * @param startIndex the starting index (inclusive)
      * @param endIndex   the ending index (exclusive)
-     * @return a new {@link java.util.ArrayList} containing the specified portion of the queue
+     * @return the specified portion of the queue
      * @throws ComputeException if any computation error occurs
      */
-    public static ArrayList<Object> sub(ArrayList<Object> queue, int startIndex, int endIndex) throws ComputeException {
+    public static List<Object> sub(List<Object> queue, int startIndex, int endIndex) throws ComputeException {
+        if (queue instanceof ChainQueue) {
+            ChainQueue chainQueue = (ChainQueue) queue;
+            return queue.size() >= endIndex ? chainQueue.view(startIndex, endIndex) : chainQueue.view(0, queue.size());
+        }
         if (queue.size() >= endIndex) {
             List<Object> objects = queue.subList(startIndex, endIndex);
             return new ArrayList<>(objects);
         }
         return new ArrayList<>(queue);
     }
+
+    /**
+     * Makes {@code target} hold the elements of {@code queue} from {@code startIndex}
+     * (inclusive) to {@code endIndex} (exclusive), with the bounds of {@link #sub(List, int, int)}.
+     * <p>
+     * The target keeps its identity, so it survives the reset of the executor. A
+     * {@link ChainQueue.View} target is moved over a {@link ChainQueue} without copying, other
+     * targets are cleared and refilled.
+     *
+     * @param target     the queue receiving the elements
+     * @param queue      the queue to take the elements from
+     * @param startIndex the starting index (inclusive)
+     * @param endIndex   the ending index (exclusive)
+     * @throws ComputeException if any computation error occurs
+     */
+    public static void assign(List<Object> target, List<Object> queue, int startIndex, int endIndex) throws ComputeException {
+        if (target instanceof ChainQueue.View && queue instanceof ChainQueue) {
+            int end = queue.size() >= endIndex ? endIndex : queue.size();
+            int start = queue.size() >= endIndex ? startIndex : 0;
+            ((ChainQueue.View) target).assign((ChainQueue) queue, start, end);
+            return;
+        }
+        List<Object> elements = sub(queue, startIndex, endIndex);
+        target.clear();
+        target.addAll(elements);
+    }
+
+    /**
+     * Gets the first element of a queue whose hit flag is not marked yet, see
+     * {@link HitCounter#unmarked(ChainQueue)}.
+     *
+     * @param counter the hit counter
+     * @param queue   the queue
+     * @return the index of the first unmarked element
+     */
+    public static int unmarked(HitCounter counter, List<Object> queue) {
+        return counter.unmarked((ChainQueue) queue);
+    }
+
+    /**
+     * Marks the hit flag of the next element.
+     *
+     * @param counter the hit counter
+     * @param hit     whether the element satisfies the predicate
+     */
+    public static void mark(HitCounter counter, boolean hit) {
+        counter.mark(hit);
+    }
+
+    /**
+     * Counts the hits of a marked queue or of a view of it.
+     *
+     * @param counter the hit counter
+     * @param values  the queue or the view
+     * @return the number of hits
+     */
+    public static long hits(HitCounter counter, List<Object> values) {
+        return counter.count(values);
+    }
 }
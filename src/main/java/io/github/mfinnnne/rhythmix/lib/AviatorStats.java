@@ -0,0 +1,193 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import io.github.mfinnnne.rhythmix.exception.ComputeException;
+import com.googlecode.aviator.annotation.Import;
+import com.googlecode.aviator.annotation.ImportScope;
+
+/**
+ * Provides the {@link SlidingStats} functions for use within Aviator expressions.
+ * <p>
+ * This class is imported as a static namespace 'stats'. Windowed chains whose calculator is
+ * a built-in aggregate keep one accumulator, updated with {@code stats.add}/{@code stats.remove}
+ * as events enter and leave the window, and read it instead of recomputing over the queue.
+ * Chains with an exponentially weighted calculator keep an {@link ExponentialStats} instead,
+ * updated with {@code stats.ewmaAdd} as events are accepted. {@code add}, {@code remove} and
+ * {@code clear} accept any {@link WindowAccumulator}, such as the accumulator of an incremental
+ * calculator UDF.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+@Import(ns = "stats", scopes = {ImportScope.Static})
+public class AviatorStats {
+
+    /**
+     * Creates a new, empty accumulator.
+     *
+     * @return a new {@link SlidingStats}
+     */
+    public static SlidingStats create() {
+        return new SlidingStats();
+    }
+
+    /**
+     * Adds an event entering the window.
+     *
+     * @param stats the accumulator
+     * @param event the event
+     */
+    public static void add(WindowAccumulator stats, Object event) {
+        stats.add(event);
+    }
+
+    /**
+     * Removes an event leaving the window.
+     *
+     * @param stats the accumulator
+     * @param event the event, as it was added
+     * @return the event
+     */
+    public static Object remove(WindowAccumulator stats, Object event) {
+        stats.remove(event);
+        return event;
+    }
+
+    /**
+     * Removes every event.
+     *
+     * @param stats the accumulator
+     */
+    public static void clear(WindowAccumulator stats) {
+        stats.clear();
+    }
+
+    /**
+     * Gets the sum of the window.
+     *
+     * @param stats the accumulator
+     * @return the sum
+     * @throws ComputeException if a value is not numeric
+     */
+    public static Number sum(SlidingStats stats) throws ComputeException {
+        return stats.sum();
+    }
+
+    /**
+     * Gets the average of the window.
+     *
+     * @param stats the accumulator
+     * @return the average
+     * @throws ComputeException if a value is not numeric
+     */
+    public static Number avg(SlidingStats stats) throws ComputeException {
+        return stats.avg();
+    }
+
+    /**
+     * Gets the number of events in the window.
+     *
+     * @param stats the accumulator
+     * @return the count
+     */
+    public static Number count(SlidingStats stats) {
+        return stats.getCount();
+    }
+
+    /**
+     * Gets the standard deviation of the window.
+     *
+     * @param stats the accumulator
+     * @return the standard deviation
+     * @throws ComputeException if fewer than two events are in the window or a value is not numeric
+     */
+    public static Number stddev(SlidingStats stats) throws ComputeException {
+        return stats.stddev();
+    }
+
+    /**
+     * Gets the maximum of the window.
+     *
+     * @param stats the accumulator, keeping extremes
+     * @return the maximum
+     * @throws ComputeException if a value is not numeric
+     */
+    public static Number max(SlidingStats stats) throws ComputeException {
+        return stats.max();
+    }
+
+    /**
+     * Gets the minimum of the window.
+     *
+     * @param stats the accumulator, keeping extremes
+     * @return the minimum
+     * @throws ComputeException if a value is not numeric
+     */
+    public static Number min(SlidingStats stats) throws ComputeException {
+        return stats.min();
+    }
+
+    /**
+     * Gets the difference between the maximum and the minimum of the window.
+     *
+     * @param stats the accumulator, keeping extremes
+     * @return the range
+     * @throws ComputeException if a value is not numeric
+     */
+    public static Number range(SlidingStats stats) throws ComputeException {
+        return stats.range();
+    }
+
+    /**
+     * Gets the {@code p}-th percentile of the window.
+     *
+     * @param stats the accumulator, keeping the order of the values or a sketch
+     * @param p     the percentile, from 0 to 100
+     * @return the percentile
+     * @throws ComputeException if a value is not numeric
+     */
+    public static Number percentile(SlidingStats stats, Number p) throws ComputeException {
+        return stats.percentile(p.doubleValue());
+    }
+
+    /**
+     * Adds an accepted event to an exponentially weighted accumulator.
+     *
+     * @param stats the accumulator
+     * @param event the event
+     */
+    public static void ewmaAdd(ExponentialStats stats, Object event) {
+        stats.add(event);
+    }
+
+    /**
+     * Removes every event from an exponentially weighted accumulator.
+     *
+     * @param stats the accumulator
+     */
+    public static void ewmaClear(ExponentialStats stats) {
+        stats.clear();
+    }
+
+    /**
+     * Gets the exponentially weighted moving average.
+     *
+     * @param stats the accumulator
+     * @return the average
+     * @throws ComputeException if a value is not numeric
+     */
+    public static Number ewma(ExponentialStats stats) throws ComputeException {
+        return stats.mean();
+    }
+
+    /**
+     * Gets the exponentially weighted moving variance.
+     *
+     * @param stats the accumulator
+     * @return the variance
+     * @throws ComputeException if a value is not numeric
+     */
+    public static Number ewmvar(ExponentialStats stats) throws ComputeException {
+        return stats.variance();
+    }
+}
@@ -0,0 +1,529 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Growable circular buffer holding the events of a chain expression.
+ * <p>
+ * Pushing at the tail and polling at the head are O(1): polling moves the head instead of
+ * shifting the elements. The buffer only grows when it is full, doubling its length, so a queue
+ * created with the length of its window never allocates once it is warm. A bounded queue drops
+ * its head instead of growing, keeping the latest elements.
+ * <p>
+ * {@link #view(int, int)} returns a zero-copy {@link View} of a range of the queue. A view
+ * covers fixed positions of the stream: elements polled from the head afterwards drop out of
+ * it, elements pushed afterwards do not enter it.
+ * <p>
+ * Subclasses may store the elements differently by overriding the slot accessors, see
+ * {@link NumericChainQueue}.
+ * <p>
+ * Thread-safety: not thread-safe, a queue belongs to the state of one rule.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class ChainQueue extends AbstractList<Object> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int capacity;
+
+    private final boolean bounded;
+
+    private Object[] elements;
+
+    /**
+     * Number of slots of the buffer.
+     */
+    private int length;
+
+    /**
+     * Slot of the first element.
+     */
+    private int head;
+
+    private int size;
+
+    /**
+     * Position in the stream of the first element: the number of elements polled or cleared
+     * since the queue was created.
+     */
+    private long offset;
+
+    /**
+     * Number of edits inside the queue, see {@link #generation()}.
+     */
+    private long generation;
+
+    /**
+     * Creates an empty queue with the default initial capacity.
+     */
+    public ChainQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty queue sized for a window of known length.
+     *
+     * @param capacity the number of elements the queue holds without growing, at least 1
+     */
+    public ChainQueue(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity the number of elements the queue holds without growing, at least 1
+     * @param bounded  whether pushing into a full queue polls its head instead of growing
+     */
+    public ChainQueue(int capacity, boolean bounded) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.bounded = bounded;
+        this.length = capacity;
+        allocate(capacity);
+    }
+
+    /**
+     * Gets the capacity the queue was created with.
+     *
+     * @return the initial capacity
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Whether the queue drops its head instead of growing.
+     *
+     * @return {@code true} if the queue never holds more than its capacity
+     */
+    public boolean isBounded() {
+        return this.bounded;
+    }
+
+    /**
+     * Gets the position in the stream of the first element: the number of elements polled or
+     * cleared since the queue was created.
+     *
+     * @return the position of the head
+     */
+    public long position() {
+        return this.offset;
+    }
+
+    /**
+     * Gets the number of times elements were inserted, removed or replaced inside the queue,
+     * anywhere but at its tail or its head. Such an edit moves elements off the stream positions
+     * they had, so whatever was kept by position is stale once the generation changed.
+     *
+     * @return the generation of the queue
+     */
+    public long generation() {
+        return this.generation;
+    }
+
+    /**
+     * Adds an element at the tail.
+     *
+     * @param element the element
+     */
+    public void push(Object element) {
+        if (this.size == this.length) {
+            if (this.bounded) {
+                poll();
+            } else {
+                grow();
+            }
+        }
+        store(slot(this.size), element);
+        this.size++;
+        this.modCount++;
+    }
+
+    /**
+     * Removes and returns the element at the head.
+     *
+     * @return the first element
+     * @throws IndexOutOfBoundsException if the queue is empty
+     */
+    public Object poll() {
+        if (this.size == 0) {
+            throw new IndexOutOfBoundsException("Index 0 out of bounds for length 0");
+        }
+        Object element = load(this.head);
+        release(this.head);
+        this.head = slot(1);
+        this.size--;
+        this.offset++;
+        this.modCount++;
+        return element;
+    }
+
+    /**
+     * Gets the element at the head.
+     *
+     * @return the first element
+     * @throws IndexOutOfBoundsException if the queue is empty
+     */
+    public Object first() {
+        return get(0);
+    }
+
+    /**
+     * Gets the element at the tail.
+     *
+     * @return the last element
+     * @throws IndexOutOfBoundsException if the queue is empty
+     */
+    public Object last() {
+        return get(this.size - 1);
+    }
+
+    /**
+     * Gets a zero-copy view of the elements from {@code fromIndex} (inclusive) to
+     * {@code toIndex} (exclusive).
+     *
+     * @param fromIndex the first index of the view
+     * @param toIndex   the index after the last element of the view
+     * @return the view
+     * @throws IndexOutOfBoundsException if the range is not within the queue
+     */
+    public View view(int fromIndex, int toIndex) {
+        View view = new View();
+        view.assign(this, fromIndex, toIndex);
+        return view;
+    }
+
+    @Override
+    public Object get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.size);
+        }
+        return load(slot(index));
+    }
+
+    /**
+     * Gets the numeric value of an element.
+     *
+     * @param index the index of the element
+     * @return a {@link Long} or {@link Double}, or {@code null} if the value is not a number
+     */
+    public Number number(int index) {
+        return EventUtil.number(get(index));
+    }
+
+    /**
+     * Gets the timestamp of an element in milliseconds.
+     *
+     * @param index the index of the element
+     * @return the timestamp
+     */
+    public long time(int index) {
+        return EventUtil.time(get(index));
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        Object previous = get(index);
+        store(slot(index), element);
+        this.generation++;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean add(Object element) {
+        push(element);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<?> c) {
+        for (Object element : c.toArray()) {
+            push(element);
+        }
+        return !c.isEmpty();
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        if (index == this.size) {
+            push(element);
+            return;
+        }
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + this.size);
+        }
+        push(last());
+        for (int i = this.size - 2; i > index; i--) {
+            move(slot(i - 1), slot(i));
+        }
+        store(slot(index), element);
+        this.generation++;
+    }
+
+    @Override
+    public Object remove(int index) {
+        if (index == 0) {
+            return poll();
+        }
+        Object element = get(index);
+        for (int i = index; i < this.size - 1; i++) {
+            move(slot(i + 1), slot(i));
+        }
+        release(slot(this.size - 1));
+        this.size--;
+        this.modCount++;
+        this.generation++;
+        return element;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            release(slot(i));
+        }
+        this.offset += this.size;
+        this.head = 0;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[this.size];
+        for (int i = 0; i < this.size; i++) {
+            array[i] = load(slot(i));
+        }
+        return array;
+    }
+
+    /**
+     * Gets the slot of the buffer holding the element at an index.
+     *
+     * @param index the index of the element
+     * @return the slot
+     */
+    protected final int slot(int index) {
+        int slot = this.head + index;
+        return slot < this.length ? slot : slot - this.length;
+    }
+
+    /**
+     * Allocates an empty buffer.
+     *
+     * @param length the number of slots
+     */
+    protected void allocate(int length) {
+        this.elements = new Object[length];
+    }
+
+    /**
+     * Reads the element held by a slot.
+     *
+     * @param slot the slot
+     * @return the element
+     */
+    protected Object load(int slot) {
+        return this.elements[slot];
+    }
+
+    /**
+     * Writes an element to a slot.
+     *
+     * @param slot    the slot
+     * @param element the element
+     */
+    protected void store(int slot, Object element) {
+        this.elements[slot] = element;
+    }
+
+    /**
+     * Copies the element of a slot to another slot of the same buffer.
+     *
+     * @param from the slot to copy
+     * @param to   the slot to overwrite
+     */
+    protected void move(int from, int to) {
+        this.elements[to] = this.elements[from];
+    }
+
+    /**
+     * Drops the element of a slot so it can be garbage collected.
+     *
+     * @param slot the slot
+     */
+    protected void release(int slot) {
+        this.elements[slot] = null;
+    }
+
+    /**
+     * Copies the elements to a new buffer, the first element landing in slot 0.
+     *
+     * @param length the number of slots of the new buffer
+     */
+    protected void resize(int length) {
+        Object[] grown = new Object[length];
+        for (int i = 0; i < this.size; i++) {
+            grown[i] = this.elements[slot(i)];
+        }
+        this.elements = grown;
+    }
+
+    private void grow() {
+        int grown = this.length << 1;
+        resize(grown);
+        this.length = grown;
+        this.head = 0;
+    }
+
+    /**
+     * Read-only, zero-copy range of a {@link ChainQueue}.
+     * <p>
+     * The view covers fixed positions of the stream of its queue, so it keeps meaning the same
+     * elements while the queue is pushed to, and shrinks when they are polled. A view can be
+     * moved to another range with {@link #assign(ChainQueue, int, int)}, which lets a chain keep
+     * one processed queue for its whole life. {@link #clear()} empties the view only, never its
+     * queue.
+     */
+    public static final class View extends AbstractList<Object> implements RandomAccess {
+
+        private ChainQueue queue;
+
+        private long from;
+
+        private long to;
+
+        /**
+         * Creates an empty view, not attached to any queue.
+         */
+        public View() {
+        }
+
+        /**
+         * Moves the view to the elements of {@code queue} from {@code fromIndex} (inclusive) to
+         * {@code toIndex} (exclusive).
+         *
+         * @param queue     the queue to view
+         * @param fromIndex the first index of the view
+         * @param toIndex   the index after the last element of the view
+         * @throws IndexOutOfBoundsException if the range is not within the queue
+         */
+        public void assign(ChainQueue queue, int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > queue.size || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + queue.size);
+            }
+            this.queue = queue;
+            this.from = queue.offset + fromIndex;
+            this.to = queue.offset + toIndex;
+            this.modCount++;
+        }
+
+        private long start() {
+            return Math.max(this.from, this.queue.offset);
+        }
+
+        /**
+         * Gets the position in the stream of its queue of the first element of the view.
+         *
+         * @return the position of the first element
+         */
+        public long position() {
+            return start();
+        }
+
+        /**
+         * Gets the queue viewed, {@code null} before the view is first assigned.
+         */
+        ChainQueue queue() {
+            return this.queue;
+        }
+
+        /**
+         * Gets the index in its queue of the first element of the view.
+         */
+        int fromIndex() {
+            return (int) (start() - this.queue.offset);
+        }
+
+        @Override
+        public Object get(int index) {
+            return this.queue.get(index(index));
+        }
+
+        /**
+         * Converts an index of the view to an index of its queue.
+         */
+        private int index(int index) {
+            int size = size();
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            return (int) (start() - this.queue.offset) + index;
+        }
+
+        /**
+         * Gets the numeric value of an element.
+         *
+         * @param index the index of the element
+         * @return a {@link Long} or {@link Double}, or {@code null} if the value is not a number
+         */
+        public Number number(int index) {
+            return this.queue.number(index(index));
+        }
+
+        /**
+         * Gets the timestamp of an element in milliseconds.
+         *
+         * @param index the index of the element
+         * @return the timestamp
+         */
+        public long time(int index) {
+            return this.queue.time(index(index));
+        }
+
+        @Override
+        public int size() {
+            if (this.queue == null) {
+                return 0;
+            }
+            long end = Math.min(this.to, this.queue.offset + this.queue.size);
+            return (int) Math.max(0, end - start());
+        }
+
+        /**
+         * Empties this view; the queue it was taken from is left untouched.
+         */
+        @Override
+        public void clear() {
+            this.from = this.to;
+            this.modCount++;
+        }
+
+        @Override
+        public Object[] toArray() {
+            Object[] array = new Object[size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = get(i);
+            }
+            return array;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(toArray());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import com.googlecode.aviator.AviatorEvaluatorInstance;
+import com.googlecode.aviator.runtime.function.AbstractFunction;
+import com.googlecode.aviator.runtime.type.AviatorBoolean;
+import com.googlecode.aviator.runtime.type.AviatorDouble;
+import com.googlecode.aviator.runtime.type.AviatorLong;
+import com.googlecode.aviator.runtime.type.AviatorObject;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+
+import java.util.Map;
+
+/**
+ * Value coercions emitted by the translator in front of comparisons with a typed literal.
+ * <p>
+ * When a rule compares with a numeric literal (e.g. {@code >5}), the compared value is wrapped
+ * in {@code coerce.num(...)}, which turns a numeric string such as an event value into a number
+ * once, so the comparison runs on two numbers. With a boolean literal, {@code coerce.bool(...)}
+ * turns {@code "true"}/{@code "false"} strings into booleans. Values that cannot be coerced are
+ * returned unchanged and compared by the generic operators of {@link AviatorConfig}, so the
+ * result is the same as without coercion.
+ * <p>
+ * The value of the current event is read with {@code coerce.value(event, event.value)}, which
+ * uses the numeric view a {@link RhythmixEventData} parses once instead of parsing its string
+ * on every comparison. Other events fall back to coercing {@code event.value}.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class Coerce {
+
+    /**
+     * Name of the numeric coercion function.
+     */
+    public static final String NUM = "coerce.num";
+
+    /**
+     * Name of the boolean coercion function.
+     */
+    public static final String BOOL = "coerce.bool";
+
+    /**
+     * Name of the function reading the numeric view of the current event.
+     */
+    public static final String VALUE = "coerce.value";
+
+    /**
+     * Registers the coercion functions with an Aviator instance.
+     *
+     * @param instance the instance to register the functions with
+     */
+    public static void register(AviatorEvaluatorInstance instance) {
+        instance.addFunction(new NumFunction());
+        instance.addFunction(new BoolFunction());
+        instance.addFunction(new ValueFunction());
+    }
+
+    /**
+     * Parses a decimal number string, with the same syntax the generic comparison accepts:
+     * an optional minus sign, at least one digit and at most one dot.
+     *
+     * @param str the string to parse
+     * @return a {@link Long} or {@link Double}, or {@code null} if the string is not a number
+     */
+    public static Number parseNumber(String str) {
+        int length = str.length();
+        if (length == 0) {
+            return null;
+        }
+        int start = str.charAt(0) == '-' ? 1 : 0;
+        if (start == length) {
+            return null;
+        }
+        boolean decimal = false;
+        boolean digits = false;
+        for (int i = start; i < length; i++) {
+            char c = str.charAt(i);
+            if (c == '.') {
+                if (decimal) {
+                    return null;
+                }
+                decimal = true;
+            } else if (c < '0' || c > '9') {
+                return null;
+            } else {
+                digits = true;
+            }
+        }
+        if (!digits) {
+            return null;
+        }
+        if (decimal) {
+            return Double.parseDouble(str);
+        }
+        if (length - start <= 18) {
+            return Long.parseLong(str);
+        }
+        try {
+            return Long.parseLong(str);
+        } catch (NumberFormatException e) {
+            return Double.parseDouble(str);
+        }
+    }
+
+    /**
+     * Converts a numeric string to a number, other values are returned unchanged.
+     *
+     * @param value the value to convert
+     * @return the number, or {@code value} itself
+     */
+    public static Object num(Object value) {
+        if (value instanceof String) {
+            Number number = parseNumber((String) value);
+            if (number != null) {
+                return number;
+            }
+        }
+        return value;
+    }
+
+    private static final class NumFunction extends AbstractFunction {
+
+        @Override
+        public String getName() {
+            return NUM;
+        }
+
+        @Override
+        public AviatorObject call(Map<String, Object> env, AviatorObject arg) {
+            Object value = arg.getValue(env);
+            if (value instanceof String) {
+                value = parseNumber((String) value);
+            }
+            return wrap(value, arg);
+        }
+    }
+
+    /**
+     * Unwraps variables so the operator sees a plain number of the literal's kind.
+     */
+    private static AviatorObject wrap(Object value, AviatorObject arg) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return AviatorLong.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return AviatorDouble.valueOf(((Number) value).doubleValue());
+        }
+        return arg;
+    }
+
+    private static final class ValueFunction extends AbstractFunction {
+
+        @Override
+        public String getName() {
+            return VALUE;
+        }
+
+        @Override
+        public AviatorObject call(Map<String, Object> env, AviatorObject event, AviatorObject value) {
+            Object data = event.getValue(env);
+            if (data instanceof RhythmixEventData) {
+                Number number = ((RhythmixEventData) data).getNumber();
+                // the property is only resolved when the value is not a number
+                return number != null ? wrap(number, value) : value;
+            }
+            Object v = value.getValue(env);
+            if (v instanceof String) {
+                v = parseNumber((String) v);
+            }
+            return wrap(v, value);
+        }
+    }
+
+    private static final class BoolFunction extends AbstractFunction {
+
+        @Override
+        public String getName() {
+            return BOOL;
+        }
+
+        @Override
+        public AviatorObject call(Map<String, Object> env, AviatorObject arg) {
+            Object value = arg.getValue(env);
+            if (value instanceof String) {
+                String str = (String) value;
+                if ("true".equalsIgnoreCase(str)) {
+                    return AviatorBoolean.TRUE;
+                }
+                if ("false".equalsIgnoreCase(str)) {
+                    return AviatorBoolean.FALSE;
+                }
+            } else if (value instanceof Boolean) {
+                return AviatorBoolean.valueOf((Boolean) value);
+            }
+            return arg;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import io.github.mfinnnne.rhythmix.lexer.Lexer;
 import io.github.mfinnnne.rhythmix.lexer.Token;
 import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
 
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -15,8 +16,8 @@ import java.util.stream.Collectors;
  * Utility class for handling event data within Rhythmix.
  * <p>
  * This class provides helper methods for processing lists of event objects,
- * specifically for converting them into a list of {@link Token}s that represent
- * the event values.
+ * specifically for reading the numeric value of an event and for converting them into
+ * a list of {@link Token}s that represent the event values.
  *
  * @author MFine
  * @version 1.0
@@ -38,8 +39,7 @@ public class EventUtil {
     public static List<Token> event2ValueToken(List<Object> values){
 
         return values.stream().map(item -> {
-            Map<String, Object> pd = BeanUtil.beanToMap(item);
-            String code = pd.get("value").toString();
+            String code = value(item);
             try {
                 ArrayList<Token> token = LEXER.analyse(code.chars().mapToObj(x -> (char) x));
                 return token.get(0);
@@ -48,4 +48,45 @@ public class EventUtil {
             }
         }).collect(Collectors.toList());
     }
+
+    /**
+     * Gets the numeric value of an event. The view of a {@link RhythmixEventData} is parsed once
+     * and reused; other beans have their "value" property parsed on each call.
+     *
+     * @param event an event object
+     * @return a {@link Long} or {@link Double}, or {@code null} if the value is not a number
+     */
+    public static Number number(Object event) {
+        if (event instanceof RhythmixEventData) {
+            return ((RhythmixEventData) event).getNumber();
+        }
+        Object value = Coerce.num(value(event));
+        return value instanceof Number ? (Number) value : null;
+    }
+
+    /**
+     * Gets the timestamp of an event in milliseconds, reading {@link RhythmixEventData} directly
+     * and other beans through their "ts" property.
+     *
+     * @param event an event object
+     * @return the timestamp
+     */
+    public static long time(Object event) {
+        if (event instanceof RhythmixEventData) {
+            return ((RhythmixEventData) event).getTs().getTime();
+        }
+        return ((Timestamp) BeanUtil.getProperty(event, "ts")).getTime();
+    }
+
+    /**
+     * Gets the value string of an event, reading {@link RhythmixEventData} directly and other
+     * beans through their "value" property.
+     */
+    private static String value(Object event) {
+        if (event instanceof RhythmixEventData) {
+            return ((RhythmixEventData) event).getValue();
+        }
+        Map<String, Object> pd = BeanUtil.beanToMap(event);
+        return pd.get("value").toString();
+    }
 }
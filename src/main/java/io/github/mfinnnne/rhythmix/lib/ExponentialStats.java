@@ -0,0 +1,142 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import io.github.mfinnnne.rhythmix.exception.ComputeException;
+
+/**
+ * Exponentially weighted moving average and variance of the events of a chain.
+ * <p>
+ * Each event moves the average towards its value by a weight {@code alpha}:
+ * {@code mean += alpha * (x - mean)}, and the variance is updated in the same pass
+ * ({@code var = (1 - alpha) * (var + alpha * (x - mean)^2)}, with the old mean). The state is
+ * a few numbers whatever the number of events, so a chain needs no window to smooth its values.
+ * <p>
+ * Created with a half-life instead, the weight depends on the time elapsed since the previous
+ * event, {@code alpha = 1 - 2^(-dt / halfLife)}: the weight of an event halves every half-life,
+ * however irregularly the events arrive. The first event sets the average.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExponentialStats {
+
+    private final double alpha;
+
+    private final long halfLife;
+
+    private long count;
+
+    /**
+     * Number of events whose value is not a number.
+     */
+    private long invalid;
+
+    private double mean;
+
+    private double variance;
+
+    private long lastTime;
+
+    /**
+     * Creates an accumulator with a constant weight.
+     *
+     * @param alpha the weight of a new event, in (0, 1]
+     */
+    public ExponentialStats(double alpha) {
+        this(alpha, 0);
+    }
+
+    private ExponentialStats(double alpha, long halfLife) {
+        this.alpha = alpha;
+        this.halfLife = halfLife;
+    }
+
+    /**
+     * Creates an accumulator whose weights decay with the timestamps of the events.
+     *
+     * @param halfLife the time after which the weight of an event has halved, in milliseconds
+     * @return a new accumulator
+     */
+    public static ExponentialStats halfLife(long halfLife) {
+        return new ExponentialStats(0, halfLife);
+    }
+
+    /**
+     * Creates an empty accumulator with the same weights as this one.
+     *
+     * @return a new accumulator
+     */
+    public ExponentialStats emptyCopy() {
+        return new ExponentialStats(this.alpha, this.halfLife);
+    }
+
+    /**
+     * Adds an event.
+     *
+     * @param event the event
+     */
+    public void add(Object event) {
+        Number number = EventUtil.number(event);
+        if (number == null) {
+            this.invalid++;
+            return;
+        }
+        double x = number.doubleValue();
+        long time = this.halfLife > 0 ? EventUtil.time(event) : 0;
+        if (this.count++ == 0) {
+            this.mean = x;
+            this.variance = 0;
+            this.lastTime = time;
+            return;
+        }
+        double weight = this.alpha;
+        if (this.halfLife > 0) {
+            long elapsed = Math.max(0, time - this.lastTime);
+            weight = -Math.expm1(-Math.log(2) * elapsed / this.halfLife);
+            this.lastTime = Math.max(this.lastTime, time);
+        }
+        double delta = x - this.mean;
+        double increment = weight * delta;
+        this.mean += increment;
+        this.variance = (1 - weight) * (this.variance + delta * increment);
+    }
+
+    /**
+     * Removes every event.
+     */
+    public void clear() {
+        this.count = 0;
+        this.invalid = 0;
+        this.mean = 0;
+        this.variance = 0;
+        this.lastTime = 0;
+    }
+
+    /**
+     * Gets the weighted average.
+     *
+     * @return the average, 0 before the first event
+     * @throws ComputeException if a value is not numeric
+     */
+    public double mean() throws ComputeException {
+        check();
+        return this.mean;
+    }
+
+    /**
+     * Gets the weighted variance.
+     *
+     * @return the variance, 0 before the second event
+     * @throws ComputeException if a value is not numeric
+     */
+    public double variance() throws ComputeException {
+        check();
+        return this.variance;
+    }
+
+    private void check() throws ComputeException {
+        if (this.invalid > 0) {
+            throw new ComputeException("该类型不能计算");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import java.util.List;
+
+/**
+ * Hit flags of the elements of a {@link ChainQueue}, for the hit rate of a chain.
+ * <p>
+ * The predicate is evaluated once per element, when the calculator first sees it, and the
+ * result is marked at the stream position of the element. Each mark packs the flag with the
+ * number of hits before it in one {@code long}, so the hits of any range of the queue, the whole
+ * queue or a {@link ChainQueue.View} of it, are the difference of two marks: elements polled
+ * from the head leave the count without being visited again.
+ * <p>
+ * The marks are kept in a ring buffer indexed by stream position, dropped as the queue polls
+ * its head. Marking another queue instance starts over, and so does marking a queue edited
+ * inside since the last mark, for instance by a filter UDF removing events from its middle:
+ * the {@link ChainQueue#generation() generation} of the queue tells.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class HitCounter {
+
+    private ChainQueue queue;
+
+    /**
+     * Generation of the queue when it was last marked.
+     */
+    private long generation;
+
+    private long[] marks = new long[16];
+
+    /**
+     * Stream position of the first mark held.
+     */
+    private long start;
+
+    /**
+     * Stream position of the first element not marked yet.
+     */
+    private long end;
+
+    /**
+     * Number of hits marked so far.
+     */
+    private long hits;
+
+    /**
+     * Gets the first element of a queue that is not marked yet; the caller evaluates the
+     * predicate for it and every later element, in order, and marks the results.
+     *
+     * @param queue the queue
+     * @return the index of the first unmarked element, the size of the queue if all are marked
+     */
+    public int unmarked(ChainQueue queue) {
+        long position = queue.position();
+        if (queue != this.queue || queue.generation() != this.generation || position + queue.size() < this.end) {
+            this.queue = queue;
+            this.generation = queue.generation();
+            this.start = position;
+            this.end = position;
+        } else if (position > this.end) {
+            this.start = position;
+            this.end = position;
+        } else {
+            this.start = Math.max(this.start, position);
+        }
+        return (int) (this.end - position);
+    }
+
+    /**
+     * Marks the next element.
+     *
+     * @param hit whether the element satisfies the predicate
+     */
+    public void mark(boolean hit) {
+        if (this.end - this.start == this.marks.length) {
+            long[] grown = new long[this.marks.length << 1];
+            for (long position = this.start; position < this.end; position++) {
+                grown[(int) (position & (grown.length - 1))] = this.marks[slot(position)];
+            }
+            this.marks = grown;
+        }
+        this.marks[slot(this.end)] = this.hits << 1 | (hit ? 1 : 0);
+        this.end++;
+        if (hit) {
+            this.hits++;
+        }
+    }
+
+    /**
+     * Counts the hits of the elements of a range of the marked queue.
+     *
+     * @param values the marked queue or a view of it, whose elements are all marked
+     * @return the number of hits
+     */
+    public long count(List<Object> values) {
+        long from;
+        if (values instanceof ChainQueue.View) {
+            from = ((ChainQueue.View) values).position();
+        } else {
+            from = ((ChainQueue) values).position();
+        }
+        if (values.isEmpty()) {
+            return 0;
+        }
+        long last = this.marks[slot(from + values.size() - 1)];
+        return (last >> 1) + (last & 1) - (this.marks[slot(from)] >> 1);
+    }
+
+    private int slot(long position) {
+        return (int) (position & (this.marks.length - 1));
+    }
+}
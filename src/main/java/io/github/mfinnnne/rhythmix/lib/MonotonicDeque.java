@@ -0,0 +1,120 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+/**
+ * Maximum (or minimum) of a first-in first-out sliding window, in amortized O(1) per event.
+ * <p>
+ * The deque keeps the values that can still become the extremum: a value is dropped as soon as
+ * a later value is at least as large (as small for a minimum), so the values are monotonic from
+ * the head, which holds the extremum. Each value is pushed and dropped once.
+ * <p>
+ * Events must leave the window in the order they entered it. The deque only counts them: the
+ * {@code n}-th {@link #remove()} removes the {@code n}-th added value.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class MonotonicDeque {
+
+    private final boolean max;
+
+    private Number[] values = new Number[8];
+
+    private long[] sequences = new long[8];
+
+    private int head;
+
+    private int size;
+
+    private long added;
+
+    private long removed;
+
+    /**
+     * Creates an empty deque.
+     *
+     * @param max {@code true} to keep the maximum, {@code false} for the minimum
+     */
+    public MonotonicDeque(boolean max) {
+        this.max = max;
+    }
+
+    /**
+     * Adds the value of an event entering the window.
+     *
+     * @param value the value, {@code null} if it is not a number
+     */
+    public void add(Number value) {
+        long sequence = this.added++;
+        if (value == null) {
+            return;
+        }
+        double x = value.doubleValue();
+        while (this.size > 0) {
+            double last = this.values[slot(this.size - 1)].doubleValue();
+            if (this.max ? last > x : last < x) {
+                break;
+            }
+            this.values[slot(this.size - 1)] = null;
+            this.size--;
+        }
+        if (this.size == this.values.length) {
+            grow();
+        }
+        int slot = slot(this.size);
+        this.values[slot] = value;
+        this.sequences[slot] = sequence;
+        this.size++;
+    }
+
+    /**
+     * Removes the oldest event of the window.
+     */
+    public void remove() {
+        long sequence = this.removed++;
+        if (this.size > 0 && this.sequences[this.head] == sequence) {
+            this.values[this.head] = null;
+            this.head = slot(1);
+            this.size--;
+        }
+    }
+
+    /**
+     * Removes every event.
+     */
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.values[slot(i)] = null;
+        }
+        this.head = 0;
+        this.size = 0;
+        this.added = 0;
+        this.removed = 0;
+    }
+
+    /**
+     * Gets the extremum of the numeric values in the window.
+     *
+     * @return the extremum, or {@code null} if the window holds no number
+     */
+    public Number peek() {
+        return this.size == 0 ? null : this.values[this.head];
+    }
+
+    private int slot(int index) {
+        int slot = this.head + index;
+        return slot < this.values.length ? slot : slot - this.values.length;
+    }
+
+    private void grow() {
+        Number[] grownValues = new Number[this.values.length << 1];
+        long[] grownSequences = new long[grownValues.length];
+        for (int i = 0; i < this.size; i++) {
+            grownValues[i] = this.values[slot(i)];
+            grownSequences[i] = this.sequences[slot(i)];
+        }
+        this.values = grownValues;
+        this.sequences = grownSequences;
+        this.head = 0;
+    }
+}
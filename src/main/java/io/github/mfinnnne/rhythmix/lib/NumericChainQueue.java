@@ -0,0 +1,201 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import io.github.mfinnnne.rhythmix.util.NumericEventData;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+
+import java.sql.Timestamp;
+
+/**
+ * {@link ChainQueue} keeping only the timestamp and the numeric value of its events, in
+ * primitive columns.
+ * <p>
+ * It is used by chains whose operators are all built-ins, which only read the timestamp and the
+ * value of an event: an element costs 17 bytes instead of a whole {@link RhythmixEventData}
+ * with its id, name, code, serial number and arguments. Reading an element returns a
+ * {@link NumericEventData} with the same value and the millisecond timestamp, and no id or name.
+ * {@link #number(int)} and {@link #time(int)} read the columns without creating it.
+ * <p>
+ * Events whose value is not a number, or which are not {@link RhythmixEventData}, are kept
+ * as they are on the side, so a rule comparing strings behaves the same.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class NumericChainQueue extends ChainQueue {
+
+    private long[] times;
+
+    /**
+     * Integral values, or the raw bits of floating point ones.
+     */
+    private long[] values;
+
+    private boolean[] fractional;
+
+    /**
+     * Events kept whole, allocated with the first one.
+     */
+    private Object[] others;
+
+    /**
+     * Creates an empty queue with the default initial capacity.
+     */
+    public NumericChainQueue() {
+        super();
+    }
+
+    /**
+     * Creates an empty queue sized for a window of known length.
+     *
+     * @param capacity the number of elements the queue holds without growing, at least 1
+     */
+    public NumericChainQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity the number of elements the queue holds without growing, at least 1
+     * @param bounded  whether pushing into a full queue polls its head instead of growing
+     */
+    public NumericChainQueue(int capacity, boolean bounded) {
+        super(capacity, bounded);
+    }
+
+    @Override
+    public Number number(int index) {
+        int slot = checkedSlot(index);
+        if (this.others != null && this.others[slot] != null) {
+            return EventUtil.number(this.others[slot]);
+        }
+        if (this.fractional[slot]) {
+            return Double.longBitsToDouble(this.values[slot]);
+        }
+        return this.values[slot];
+    }
+
+    @Override
+    public long time(int index) {
+        int slot = checkedSlot(index);
+        if (this.others != null && this.others[slot] != null) {
+            return EventUtil.time(this.others[slot]);
+        }
+        return this.times[slot];
+    }
+
+    /**
+     * Copies the numeric values of a range of the queue and their timestamps into arrays, from
+     * index 0, skipping the elements whose value is missing, not a number or NaN.
+     *
+     * @param fromIndex the first index of the range
+     * @param toIndex   the index after the last element of the range
+     * @param numbers   the array receiving the values, at least as long as the range
+     * @param stamps    the array receiving the timestamps, at least as long as the range
+     * @return the number of values copied
+     */
+    int copyTo(int fromIndex, int toIndex, double[] numbers, long[] stamps) {
+        int count = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            int slot = slot(i);
+            if (this.others != null && this.others[slot] != null) {
+                double value = NumericColumns.value(this.others[slot]);
+                if (!Double.isNaN(value)) {
+                    numbers[count] = value;
+                    stamps[count++] = EventUtil.time(this.others[slot]);
+                }
+                continue;
+            }
+            long value = this.values[slot];
+            numbers[count] = this.fractional[slot] ? Double.longBitsToDouble(value) : value;
+            stamps[count++] = this.times[slot];
+        }
+        return count;
+    }
+
+    private int checkedSlot(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        return slot(index);
+    }
+
+    @Override
+    protected void allocate(int length) {
+        this.times = new long[length];
+        this.values = new long[length];
+        this.fractional = new boolean[length];
+    }
+
+    @Override
+    protected Object load(int slot) {
+        if (this.others != null && this.others[slot] != null) {
+            return this.others[slot];
+        }
+        Timestamp ts = new Timestamp(this.times[slot]);
+        if (this.fractional[slot]) {
+            return new NumericEventData(null, null, Double.longBitsToDouble(this.values[slot]), ts);
+        }
+        return new NumericEventData(null, null, this.values[slot], ts);
+    }
+
+    @Override
+    protected void store(int slot, Object element) {
+        if (element instanceof RhythmixEventData) {
+            RhythmixEventData event = (RhythmixEventData) element;
+            Number number = event.getNumber();
+            if (number != null && event.getTs() != null) {
+                this.times[slot] = event.getTs().getTime();
+                this.fractional[slot] = !(number instanceof Long);
+                this.values[slot] = number instanceof Long ? number.longValue() : Double.doubleToRawLongBits(number.doubleValue());
+                if (this.others != null) {
+                    this.others[slot] = null;
+                }
+                return;
+            }
+        }
+        if (this.others == null) {
+            this.others = new Object[this.times.length];
+        }
+        this.others[slot] = element;
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        this.times[to] = this.times[from];
+        this.values[to] = this.values[from];
+        this.fractional[to] = this.fractional[from];
+        if (this.others != null) {
+            this.others[to] = this.others[from];
+        }
+    }
+
+    @Override
+    protected void release(int slot) {
+        if (this.others != null) {
+            this.others[slot] = null;
+        }
+    }
+
+    @Override
+    protected void resize(int length) {
+        long[] grownTimes = new long[length];
+        long[] grownValues = new long[length];
+        boolean[] grownFractional = new boolean[length];
+        Object[] grownOthers = this.others == null ? null : new Object[length];
+        for (int i = 0; i < size(); i++) {
+            int slot = slot(i);
+            grownTimes[i] = this.times[slot];
+            grownValues[i] = this.values[slot];
+            grownFractional[i] = this.fractional[slot];
+            if (grownOthers != null) {
+                grownOthers[i] = this.others[slot];
+            }
+        }
+        this.times = grownTimes;
+        this.values = grownValues;
+        this.fractional = grownFractional;
+        this.others = grownOthers;
+    }
+}
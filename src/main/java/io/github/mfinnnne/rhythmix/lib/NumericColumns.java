@@ -0,0 +1,102 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+
+import java.util.List;
+
+/**
+ * The numeric values of a list of events and their timestamps, in two primitive arrays.
+ * <p>
+ * {@link #fill(List)} copies a {@link NumericChainQueue}, or a {@link ChainQueue.View} of one,
+ * column to column, without creating an event or parsing a value; other lists are read event by
+ * event. Events whose value is missing, not a number or NaN are skipped. The arrays are reused
+ * by the next fill and only grow, so a chain keeps one instance per rule state.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class NumericColumns {
+
+    private double[] values = new double[16];
+
+    private long[] times = new long[16];
+
+    private int size;
+
+    /**
+     * Replaces the columns with the values of a list of events.
+     *
+     * @param events the events
+     */
+    public void fill(List<?> events) {
+        int length = events.size();
+        if (length > this.values.length) {
+            int grown = Math.max(length, this.values.length << 1);
+            this.values = new double[grown];
+            this.times = new long[grown];
+        }
+        if (events instanceof NumericChainQueue) {
+            this.size = ((NumericChainQueue) events).copyTo(0, length, this.values, this.times);
+            return;
+        }
+        if (events instanceof ChainQueue.View && ((ChainQueue.View) events).queue() instanceof NumericChainQueue) {
+            ChainQueue.View view = (ChainQueue.View) events;
+            int from = view.fromIndex();
+            this.size = ((NumericChainQueue) view.queue()).copyTo(from, from + length, this.values, this.times);
+            return;
+        }
+        this.size = 0;
+        for (Object event : events) {
+            double value = value(event);
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            this.values[this.size] = value;
+            this.times[this.size++] = event instanceof RhythmixEventData && ((RhythmixEventData) event).getTs() == null
+                    ? 0 : EventUtil.time(event);
+        }
+    }
+
+    /**
+     * Gets the value of an event as a double, parsing what {@link RhythmixEventData#getNumber()}
+     * leaves out such as {@code "Infinity"}.
+     *
+     * @param event an event
+     * @return the value, NaN if the event has none or it is not a number
+     */
+    static double value(Object event) {
+        if (event instanceof RhythmixEventData) {
+            return ((RhythmixEventData) event).doubleValue();
+        }
+        Number number = event == null ? null : EventUtil.number(event);
+        return number == null ? Double.NaN : number.doubleValue();
+    }
+
+    /**
+     * Gets the values, valid from index 0 to {@link #size()}.
+     *
+     * @return the values
+     */
+    public double[] values() {
+        return this.values;
+    }
+
+    /**
+     * Gets the timestamps in milliseconds, valid from index 0 to {@link #size()}.
+     *
+     * @return the timestamps
+     */
+    public long[] times() {
+        return this.times;
+    }
+
+    /**
+     * Gets the number of values of the last fill.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        return this.size;
+    }
+}
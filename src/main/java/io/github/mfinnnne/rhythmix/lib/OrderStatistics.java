@@ -0,0 +1,220 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import java.util.Arrays;
+
+/**
+ * Multiset of numbers answering "the k-th smallest" in O(log n).
+ * <p>
+ * The values are kept in a treap, a binary search tree balanced by random priorities, whose
+ * nodes count the size of their subtree. Adding, removing and selecting are expected
+ * O(log n). The nodes live in parallel arrays reused through a free list, so a window of
+ * stable length does not allocate once it is warm.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class OrderStatistics {
+
+    /**
+     * Node 0 is the empty tree.
+     */
+    private double[] keys = new double[16];
+
+    private int[] priorities = new int[16];
+
+    private int[] left = new int[16];
+
+    private int[] right = new int[16];
+
+    private int[] sizes = new int[16];
+
+    private int root;
+
+    /**
+     * Number of nodes ever allocated, node 0 included.
+     */
+    private int allocated = 1;
+
+    /**
+     * Head of the list of released nodes, chained through {@link #right}.
+     */
+    private int free;
+
+    private int seed = 0x2545F491;
+
+    /**
+     * Results of {@link #split(int, double)}.
+     */
+    private int low;
+
+    private int high;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     */
+    public void add(double value) {
+        int node = allocate(value);
+        split(this.root, value);
+        this.root = merge(merge(this.low, node), this.high);
+    }
+
+    /**
+     * Removes one occurrence of a value.
+     *
+     * @param value the value, as it was added
+     * @return {@code true} if the value was found
+     */
+    public boolean remove(double value) {
+        int size = size();
+        this.root = remove(this.root, value);
+        return size() < size;
+    }
+
+    /**
+     * Gets the number of values.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.sizes[this.root];
+    }
+
+    /**
+     * Gets the {@code k}-th smallest value.
+     *
+     * @param k the rank, from 0
+     * @return the value
+     * @throws IndexOutOfBoundsException if {@code k} is not a rank of the set
+     */
+    public double select(int k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("Index " + k + " out of bounds for length " + size());
+        }
+        int node = this.root;
+        while (true) {
+            int leftSize = this.sizes[this.left[node]];
+            if (k < leftSize) {
+                node = this.left[node];
+            } else if (k == leftSize) {
+                return this.keys[node];
+            } else {
+                k -= leftSize + 1;
+                node = this.right[node];
+            }
+        }
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        this.root = 0;
+        this.allocated = 1;
+        this.free = 0;
+    }
+
+    /**
+     * Splits a tree into the values lower than {@code value}, left in {@link #low}, and the
+     * others, left in {@link #high}.
+     */
+    private void split(int node, double value) {
+        if (node == 0) {
+            this.low = 0;
+            this.high = 0;
+            return;
+        }
+        if (this.keys[node] < value) {
+            split(this.right[node], value);
+            this.right[node] = this.low;
+            update(node);
+            this.low = node;
+        } else {
+            split(this.left[node], value);
+            this.left[node] = this.high;
+            update(node);
+            this.high = node;
+        }
+    }
+
+    /**
+     * Merges two trees, every value of {@code a} being lower than or equal to those of {@code b}.
+     */
+    private int merge(int a, int b) {
+        if (a == 0) {
+            return b;
+        }
+        if (b == 0) {
+            return a;
+        }
+        if (this.priorities[a] > this.priorities[b]) {
+            this.right[a] = merge(this.right[a], b);
+            update(a);
+            return a;
+        }
+        this.left[b] = merge(a, this.left[b]);
+        update(b);
+        return b;
+    }
+
+    private int remove(int node, double value) {
+        if (node == 0) {
+            return 0;
+        }
+        if (this.keys[node] == value) {
+            int merged = merge(this.left[node], this.right[node]);
+            release(node);
+            return merged;
+        }
+        if (value < this.keys[node]) {
+            this.left[node] = remove(this.left[node], value);
+        } else {
+            this.right[node] = remove(this.right[node], value);
+        }
+        update(node);
+        return node;
+    }
+
+    private void update(int node) {
+        this.sizes[node] = this.sizes[this.left[node]] + this.sizes[this.right[node]] + 1;
+    }
+
+    private int allocate(double value) {
+        int node;
+        if (this.free != 0) {
+            node = this.free;
+            this.free = this.right[node];
+        } else {
+            if (this.allocated == this.keys.length) {
+                grow();
+            }
+            node = this.allocated++;
+        }
+        // xorshift
+        this.seed ^= this.seed << 13;
+        this.seed ^= this.seed >>> 17;
+        this.seed ^= this.seed << 5;
+        this.keys[node] = value;
+        this.priorities[node] = this.seed;
+        this.left[node] = 0;
+        this.right[node] = 0;
+        this.sizes[node] = 1;
+        return node;
+    }
+
+    private void release(int node) {
+        this.right[node] = this.free;
+        this.free = node;
+    }
+
+    private void grow() {
+        int length = this.keys.length << 1;
+        this.keys = Arrays.copyOf(this.keys, length);
+        this.priorities = Arrays.copyOf(this.priorities, length);
+        this.left = Arrays.copyOf(this.left, length);
+        this.right = Arrays.copyOf(this.right, length);
+        this.sizes = Arrays.copyOf(this.sizes, length);
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import java.util.Arrays;
+
+/**
+ * Approximate quantiles of an unbounded stream of numbers in bounded memory (KLL sketch).
+ * <p>
+ * Values enter level 0. When the sketch holds more values than its capacity, the lowest level
+ * that is full is sorted and every other value, starting alternately at the first or the
+ * second, is promoted to the next level, where it stands for twice as many values. Levels
+ * above 0 are kept sorted, so a quantile is read by merging them. Level
+ * capacities shrink by 2/3 going down from the top, so the sketch keeps about {@code 3k}
+ * values plus a few per level, O(k log(n / k)), and the rank error is about {@code 1.7 / k}
+ * of the stream length. Adding is amortized O(log k).
+ * <p>
+ * Until the first compaction every value is kept and quantiles are exact.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class QuantileSketch {
+
+    /**
+     * Default accuracy parameter, a rank error of about 1%.
+     */
+    public static final int DEFAULT_K = 200;
+
+    private final int k;
+
+    private double[][] levels = new double[1][8];
+
+    private int[] sizes = new int[1];
+
+    /**
+     * Next start of the compaction of each level, 0 or 1.
+     */
+    private int[] offsets = new int[1];
+
+    private long count;
+
+    /**
+     * Creates a sketch.
+     *
+     * @param k the accuracy parameter, at least 8: the capacity of the top level
+     */
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8: " + k);
+        }
+        this.k = k;
+    }
+
+    /**
+     * Gets the accuracy parameter.
+     *
+     * @return k
+     */
+    public int getK() {
+        return this.k;
+    }
+
+    /**
+     * Gets the number of values added.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     */
+    public void add(double value) {
+        append(0, value);
+        this.count++;
+        if (retained() > capacity()) {
+            compress();
+        }
+    }
+
+    /**
+     * Gets the {@code p}-th percentile, interpolated between the closest ranks while the sketch
+     * is exact.
+     *
+     * @param p the percentile, from 0 to 100
+     * @return the percentile, {@code NaN} if the sketch is empty
+     */
+    public double percentile(double p) {
+        if (this.count == 0) {
+            return Double.NaN;
+        }
+        if (this.levels.length == 1) {
+            double[] sorted = Arrays.copyOf(this.levels[0], this.sizes[0]);
+            Arrays.sort(sorted);
+            return AviatorMath.percentile(sorted, p);
+        }
+        double[] level0 = Arrays.copyOf(this.levels[0], this.sizes[0]);
+        Arrays.sort(level0);
+        // merge the sorted levels until the weight reaches the rank
+        int[] heads = new int[this.levels.length];
+        double target = p / 100 * this.count;
+        long cumulative = 0;
+        double value = Double.NaN;
+        while (true) {
+            int next = -1;
+            for (int h = 0; h < heads.length; h++) {
+                if (heads[h] < this.sizes[h]) {
+                    double candidate = h == 0 ? level0[heads[0]] : this.levels[h][heads[h]];
+                    if (next < 0 || candidate < value) {
+                        next = h;
+                        value = candidate;
+                    }
+                }
+            }
+            if (next < 0) {
+                return value;
+            }
+            heads[next]++;
+            cumulative += 1L << next;
+            if (cumulative >= target) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        this.levels = new double[1][8];
+        this.sizes = new int[1];
+        this.offsets = new int[1];
+        this.count = 0;
+    }
+
+    private int retained() {
+        int retained = 0;
+        for (int size : this.sizes) {
+            retained += size;
+        }
+        return retained;
+    }
+
+    private int capacity() {
+        int capacity = 0;
+        for (int h = 0; h < this.levels.length; h++) {
+            capacity += capacity(h);
+        }
+        return capacity;
+    }
+
+    private int capacity(int level) {
+        int depth = this.levels.length - 1 - level;
+        return Math.max(2, (int) Math.ceil(this.k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    private void compress() {
+        for (int h = 0; h < this.levels.length; h++) {
+            if (this.sizes[h] >= capacity(h)) {
+                compact(h);
+                return;
+            }
+        }
+    }
+
+    private void compact(int level) {
+        if (level + 1 == this.levels.length) {
+            this.levels = Arrays.copyOf(this.levels, level + 2);
+            this.levels[level + 1] = new double[8];
+            this.sizes = Arrays.copyOf(this.sizes, level + 2);
+            this.offsets = Arrays.copyOf(this.offsets, level + 2);
+        }
+        double[] values = this.levels[level];
+        int size = this.sizes[level];
+        if (level == 0) {
+            Arrays.sort(values, 0, size);
+        }
+        // an odd value out, the largest, stays at this level
+        int even = size & ~1;
+        int offset = this.offsets[level];
+        this.offsets[level] = 1 - offset;
+        double[] promoted = new double[even / 2];
+        for (int i = 0; i < promoted.length; i++) {
+            promoted[i] = values[offset + 2 * i];
+        }
+        if (even < size) {
+            values[0] = values[even];
+        }
+        this.sizes[level] = size - even;
+        merge(level + 1, promoted);
+    }
+
+    /**
+     * Merges sorted values into a level, which levels above 0 always are.
+     */
+    private void merge(int level, double[] promoted) {
+        double[] values = this.levels[level];
+        int size = this.sizes[level];
+        double[] merged = new double[Math.max(values.length, size + promoted.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < size && j < promoted.length) {
+            merged[n++] = values[i] <= promoted[j] ? values[i++] : promoted[j++];
+        }
+        while (i < size) {
+            merged[n++] = values[i++];
+        }
+        while (j < promoted.length) {
+            merged[n++] = promoted[j++];
+        }
+        this.levels[level] = merged;
+        this.sizes[level] = n;
+    }
+
+    private void append(int level, double value) {
+        double[] values = this.levels[level];
+        if (this.sizes[level] == values.length) {
+            values = Arrays.copyOf(values, values.length << 1);
+            this.levels[level] = values;
+        }
+        values[this.sizes[level]++] = value;
+    }
+}
@@ -11,6 +11,7 @@ import io.github.mfinnnne.rhythmix.udf.FilterUDFRegistry;
 import io.github.mfinnnne.rhythmix.udf.CalculatorUDFRegistry;
 import io.github.mfinnnne.rhythmix.udf.MeetUDFRegistry;
 import com.googlecode.aviator.AviatorEvaluator;
+import com.googlecode.aviator.AviatorEvaluatorInstance;
 
 /**
  * Utility class for registering custom functions and UDFs with the AviatorEvaluator.
@@ -26,30 +27,51 @@ import com.googlecode.aviator.AviatorEvaluator;
 public class Register {
 
     /**
-     * Imports all built-in functions and auto-imports all discoverable UDFs.
+     * Imports all built-in functions into the global Aviator instance and auto-imports all
+     * discoverable UDFs.
      * <p>
-     * Call once at application startup to ensure functions are available to the engine.
+     * Rhythmix itself does not use the global instance, see
+     * {@link io.github.mfinnnne.rhythmix.execute.RhythmixRuntime}.
      *
      * @throws RuntimeException if reflection-based UDF registration fails
      */
     public static void importFunction() {
-        try {
-            // Import existing static function classes
-            AviatorEvaluator.importFunctions(Time.class);
-            AviatorEvaluator.importFunctions(AviatorQueue.class);
-            AviatorEvaluator.importFunctions(AviatorMath.class);
-
-            // Auto-import FilterUDF instances
-            FilterUDFRegistry.autoImportFilterUDFs();
-
-            // Auto-import CalculatorUDF instances
-            CalculatorUDFRegistry.autoImportCalculatorUDFs();
-
-            // Auto-import MeetUDF instances
-            MeetUDFRegistry.autoImportMeetUDFs();
+        importFunctions(AviatorEvaluator.getInstance());
+        importUDFs();
+    }
 
+    /**
+     * Imports the built-in function classes ({@link Time}, {@link AviatorQueue},
+     * {@link AviatorMath} and {@link AviatorStats}) and the {@link Coerce} functions into an Aviator instance.
+     *
+     * @param instance the instance to import the functions into
+     * @throws RuntimeException if reflection-based registration fails
+     */
+    public static void importFunctions(AviatorEvaluatorInstance instance) {
+        try {
+            instance.importFunctions(Time.class);
+            instance.importFunctions(AviatorQueue.class);
+            instance.importFunctions(AviatorMath.class);
+            instance.importFunctions(AviatorStats.class);
+            Coerce.register(instance);
         } catch (IllegalAccessException | NoSuchMethodException e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Auto-imports all discoverable UDFs into their registries.
+     * <p>
+     * Call once at application startup to ensure UDFs are available to the engine.
+     */
+    public static void importUDFs() {
+        // Auto-import FilterUDF instances
+        FilterUDFRegistry.autoImportFilterUDFs();
+
+        // Auto-import CalculatorUDF instances
+        CalculatorUDFRegistry.autoImportCalculatorUDFs();
+
+        // Auto-import MeetUDF instances
+        MeetUDFRegistry.autoImportMeetUDFs();
+    }
 }
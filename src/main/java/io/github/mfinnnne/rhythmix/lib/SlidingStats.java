@@ -0,0 +1,343 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import io.github.mfinnnne.rhythmix.exception.ComputeException;
+
+/**
+ * Running sum, mean, variance and extremes of the events of a sliding window.
+ * <p>
+ * Events are added when they enter the window and removed when they leave it, so reading an
+ * aggregate costs the same whatever the window length. The floating point sum is compensated
+ * (Kahan-Babuska), mean and variance are kept with Welford's update, which also supports
+ * removal. Integral values are summed exactly on the side, so {@link #sum()} returns the same
+ * type as {@link AviatorMath#sum(java.util.List)}.
+ * <p>
+ * Created with {@code extremes}, it also keeps the maximum and minimum in
+ * {@link MonotonicDeque}s, which requires events to leave in the order they entered. Created
+ * with {@code order}, it keeps the values in {@link OrderStatistics} for exact percentiles;
+ * with a sketch size instead, in a {@link QuantileSketch} for approximate percentiles of a
+ * window that only grows.
+ * <p>
+ * The accumulator does not hold the events; the caller must remove exactly the events it added.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class SlidingStats implements WindowAccumulator {
+
+    private int count;
+
+    /**
+     * Number of events whose value is not a number.
+     */
+    private int invalid;
+
+    /**
+     * Number of events whose value is not integral.
+     */
+    private int fractional;
+
+    private long longSum;
+
+    private double sum;
+
+    private double compensation;
+
+    private double mean;
+
+    private double m2;
+
+    private final MonotonicDeque max;
+
+    private final MonotonicDeque min;
+
+    private final OrderStatistics order;
+
+    private final QuantileSketch sketch;
+
+    /**
+     * Creates an accumulator of sum, mean and variance.
+     */
+    public SlidingStats() {
+        this(false);
+    }
+
+    /**
+     * Creates an accumulator.
+     *
+     * @param extremes whether the maximum and minimum are kept too
+     */
+    public SlidingStats(boolean extremes) {
+        this(extremes, false, 0);
+    }
+
+    /**
+     * Creates an accumulator.
+     *
+     * @param extremes   whether the maximum and minimum are kept too
+     * @param order      whether the values are kept for exact percentiles
+     * @param sketchSize the accuracy parameter of a {@link QuantileSketch} kept for approximate
+     *                   percentiles, 0 for none
+     */
+    public SlidingStats(boolean extremes, boolean order, int sketchSize) {
+        this.max = extremes ? new MonotonicDeque(true) : null;
+        this.min = extremes ? new MonotonicDeque(false) : null;
+        this.order = order ? new OrderStatistics() : null;
+        this.sketch = sketchSize > 0 ? new QuantileSketch(sketchSize) : null;
+    }
+
+    /**
+     * Creates an empty accumulator keeping the same aggregates as this one.
+     *
+     * @return a new accumulator
+     */
+    @Override
+    public SlidingStats emptyCopy() {
+        return new SlidingStats(this.max != null, this.order != null, this.sketch == null ? 0 : this.sketch.getK());
+    }
+
+    /**
+     * Whether percentiles are read from a {@link QuantileSketch}, which cannot remove events.
+     *
+     * @return {@code true} if they are
+     */
+    public boolean hasSketch() {
+        return this.sketch != null;
+    }
+
+    /**
+     * Adds an event entering the window.
+     *
+     * @param event the event
+     */
+    @Override
+    public void add(Object event) {
+        Number number = EventUtil.number(event);
+        if (this.max != null) {
+            this.max.add(number);
+            this.min.add(number);
+        }
+        this.count++;
+        if (number == null) {
+            this.invalid++;
+            return;
+        }
+        if (this.order != null) {
+            this.order.add(number.doubleValue());
+        }
+        if (this.sketch != null) {
+            this.sketch.add(number.doubleValue());
+        }
+        if (number instanceof Long) {
+            this.longSum += number.longValue();
+        } else {
+            this.fractional++;
+        }
+        double x = number.doubleValue();
+        accumulate(x);
+        int n = this.count - this.invalid;
+        double delta = x - this.mean;
+        this.mean += delta / n;
+        this.m2 += delta * (x - this.mean);
+    }
+
+    /**
+     * Removes an event leaving the window.
+     *
+     * @param event the event, as it was added
+     */
+    @Override
+    public void remove(Object event) {
+        if (this.count <= 1) {
+            clear();
+            return;
+        }
+        if (this.max != null) {
+            this.max.remove();
+            this.min.remove();
+        }
+        Number number = EventUtil.number(event);
+        this.count--;
+        if (number == null) {
+            this.invalid--;
+            return;
+        }
+        if (this.order != null) {
+            this.order.remove(number.doubleValue());
+        }
+        if (number instanceof Long) {
+            this.longSum -= number.longValue();
+        } else {
+            this.fractional--;
+        }
+        double x = number.doubleValue();
+        accumulate(-x);
+        int n = this.count - this.invalid;
+        if (n == 0) {
+            this.sum = 0;
+            this.compensation = 0;
+            this.mean = 0;
+            this.m2 = 0;
+            return;
+        }
+        double delta = x - this.mean;
+        this.mean -= delta / n;
+        this.m2 = Math.max(0, this.m2 - delta * (x - this.mean));
+    }
+
+    /**
+     * Removes every event.
+     */
+    @Override
+    public void clear() {
+        this.count = 0;
+        this.invalid = 0;
+        this.fractional = 0;
+        this.longSum = 0;
+        this.sum = 0;
+        this.compensation = 0;
+        this.mean = 0;
+        this.m2 = 0;
+        if (this.max != null) {
+            this.max.clear();
+            this.min.clear();
+        }
+        if (this.order != null) {
+            this.order.clear();
+        }
+        if (this.sketch != null) {
+            this.sketch.clear();
+        }
+    }
+
+    /**
+     * Gets the number of events in the window.
+     *
+     * @return the count
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the sum of the values: an int, a long when it does not fit in an int, or a double
+     * as soon as one value is not integral.
+     *
+     * @return the sum, 0 if the window is empty
+     * @throws ComputeException if a value is not numeric
+     */
+    public Number sum() throws ComputeException {
+        checkNumeric();
+        if (this.fractional > 0) {
+            return this.sum + this.compensation;
+        }
+        if (this.longSum == (int) this.longSum) {
+            return (int) this.longSum;
+        }
+        return this.longSum;
+    }
+
+    /**
+     * Gets the average of the values.
+     *
+     * @return the average, 0 if the window is empty
+     * @throws ComputeException if a value is not numeric
+     */
+    public Number avg() throws ComputeException {
+        if (this.count == 0) {
+            return 0;
+        }
+        return sum().doubleValue() / this.count;
+    }
+
+    /**
+     * Gets the population standard deviation of the values.
+     *
+     * @return the standard deviation
+     * @throws ComputeException if fewer than two events are in the window or a value is not numeric
+     */
+    public Number stddev() throws ComputeException {
+        if (this.count < 2) {
+            throw new ComputeException("列表中至少需要两个数字来计算标准差");
+        }
+        checkNumeric();
+        return Math.sqrt(this.m2 / this.count);
+    }
+
+    /**
+     * Gets the maximum of the values.
+     *
+     * @return the maximum, 0 if the window is empty
+     * @throws ComputeException if a value is not numeric
+     */
+    public Number max() throws ComputeException {
+        checkNumeric();
+        Number max = this.max.peek();
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * Gets the minimum of the values.
+     *
+     * @return the minimum, 0 if the window is empty
+     * @throws ComputeException if a value is not numeric
+     */
+    public Number min() throws ComputeException {
+        checkNumeric();
+        Number min = this.min.peek();
+        return min == null ? 0 : min;
+    }
+
+    /**
+     * Gets the difference between the maximum and the minimum of the values.
+     *
+     * @return the range, 0 if the window is empty
+     * @throws ComputeException if a value is not numeric
+     */
+    public Number range() throws ComputeException {
+        return AviatorMath.difference(max(), min());
+    }
+
+    /**
+     * Gets the {@code p}-th percentile of the values, interpolated between the closest ranks.
+     * It is exact with {@link OrderStatistics}, approximate once a {@link QuantileSketch} has
+     * compacted.
+     *
+     * @param p the percentile, from 0 to 100
+     * @return the percentile, 0 if the window is empty
+     * @throws ComputeException if a value is not numeric
+     */
+    public Number percentile(double p) throws ComputeException {
+        checkNumeric();
+        if (this.count == 0) {
+            return 0;
+        }
+        if (this.sketch != null) {
+            return this.sketch.percentile(p);
+        }
+        int n = this.order.size();
+        double rank = (n - 1) * p / 100;
+        int lower = (int) rank;
+        double value = this.order.select(lower);
+        if (lower + 1 >= n) {
+            return value;
+        }
+        return value + (rank - lower) * (this.order.select(lower + 1) - value);
+    }
+
+    private void accumulate(double x) {
+        double t = this.sum + x;
+        if (Math.abs(this.sum) >= Math.abs(x)) {
+            this.compensation += (this.sum - t) + x;
+        } else {
+            this.compensation += (x - t) + this.sum;
+        }
+        this.sum = t;
+    }
+
+    private void checkNumeric() throws ComputeException {
+        if (this.invalid > 0) {
+            throw new ComputeException("该类型不能计算");
+        }
+    }
+}
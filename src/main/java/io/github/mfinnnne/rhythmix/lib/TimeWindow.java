@@ -0,0 +1,96 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+/**
+ * Incremental boundary of a time window over a {@link ChainQueue}.
+ * <p>
+ * A time window of length {@code T} is emitted when an event lies at least {@code T} after
+ * the head of the queue: the window runs from the head to that event, included when it lies
+ * exactly {@code T} after the head. The head of an emitted window is evicted when the next
+ * event arrives, at most one per event, so a burst after a gap drains the old events one
+ * window at a time.
+ * <p>
+ * The boundary is kept as a stream position that only moves forward: events before it are
+ * known to lie less than {@code T} after the head, which stays true when the head is evicted,
+ * as events arrive in timestamp order. Each event is therefore compared a bounded number of
+ * times and a step costs amortized O(1), whatever the length of the window.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class TimeWindow {
+
+    private final long length;
+
+    private ChainQueue queue;
+
+    /**
+     * Stream position of the first event not known to lie less than {@link #length} after the head.
+     */
+    private long boundary;
+
+    /**
+     * Creates a time window.
+     *
+     * @param length the length of the window in milliseconds
+     */
+    public TimeWindow(long length) {
+        this.length = length;
+    }
+
+    /**
+     * Gets the length of the window.
+     *
+     * @return the length in milliseconds
+     */
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Advances the window after an event was pushed to {@code queue}.
+     *
+     * @param queue     the queue holding the events
+     * @param processed the view receiving the emitted window
+     * @return {@code true} if a window is emitted
+     */
+    public boolean slide(ChainQueue queue, ChainQueue.View processed) {
+        if (this.queue != queue) {
+            // the queue was replaced, e.g. by a filter UDF
+            this.queue = queue;
+            this.boundary = 0;
+        }
+        int size = queue.size();
+        if (size > 2 && find(size - 1) < size - 1) {
+            queue.poll();
+        }
+        size = queue.size();
+        if (size < 2) {
+            return false;
+        }
+        int index = find(size);
+        if (index == size) {
+            processed.clear();
+            return false;
+        }
+        long diff = queue.time(index) - queue.time(0);
+        processed.assign(queue, 0, diff == this.length ? index + 1 : index);
+        return true;
+    }
+
+    /**
+     * Finds the first event of {@code [1, end)} lying at least {@link #length} after the head.
+     *
+     * @return its index, {@code end} if there is none
+     */
+    private int find(int end) {
+        long position = this.queue.position();
+        int index = (int) Math.max(1, this.boundary - position);
+        long head = this.queue.time(0);
+        while (index < end && this.queue.time(index) - head < this.length) {
+            index++;
+        }
+        this.boundary = position + index;
+        return index;
+    }
+}
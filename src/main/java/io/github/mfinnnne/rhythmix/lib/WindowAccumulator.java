@@ -0,0 +1,41 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+/**
+ * Aggregate of a window that is updated as events enter and leave it.
+ * <p>
+ * The limit and count window operators of a chain add each event entering the window and
+ * remove each event leaving it, in order, through {@code stats.add}/{@code stats.remove}; the
+ * calculator then reads its result without visiting the window.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public interface WindowAccumulator {
+
+    /**
+     * Adds an event entering the window.
+     *
+     * @param event the event
+     */
+    void add(Object event);
+
+    /**
+     * Removes an event leaving the window.
+     *
+     * @param event the event, as it was added
+     */
+    void remove(Object event);
+
+    /**
+     * Removes every event.
+     */
+    void clear();
+
+    /**
+     * Creates an empty accumulator of the same aggregate, for a new state of the rule.
+     *
+     * @return a new accumulator
+     */
+    WindowAccumulator emptyCopy();
+}
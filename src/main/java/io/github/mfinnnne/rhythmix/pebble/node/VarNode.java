@@ -1,6 +1,7 @@
 package io.github.mfinnnne.rhythmix.pebble.node;
 
 import io.github.mfinnnne.rhythmix.config.Config;
+import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.pebbletemplates.pebble.extension.NodeVisitor;
 import io.pebbletemplates.pebble.node.AbstractRenderableNode;
 import io.pebbletemplates.pebble.template.EvaluationContextImpl;
@@ -18,7 +19,7 @@ import java.io.Writer;
 public class VarNode extends AbstractRenderableNode {
 
 
-    private String name;
+    private final String name;
 
     /**
      * <p>Constructor for VarNode.</p>
@@ -34,25 +35,26 @@ public class VarNode extends AbstractRenderableNode {
     /** {@inheritDoc} */
     @Override
     public void render(PebbleTemplateImpl self, Writer writer, EvaluationContextImpl context) throws IOException {
-        if (this.name.split("\\"+Config.SPLIT_SYMBOL).length==2) {
-            writer.write(this.name);
+        String name = this.name;
+        if (name.split("\\"+Config.SPLIT_SYMBOL).length==2) {
+            writer.write(EnvProxy.reference(name));
             return;
         }
-        if (this.name.startsWith("__") && this.name.endsWith("__")) {
-            this.name = this.name.substring(2, this.name.length() - 2);
-            if (context.getScopeChain().containsKey(this.name)) {
-                this.name = context.getScopeChain().get(this.name).toString();
+        if (name.startsWith("__") && name.endsWith("__")) {
+            name = name.substring(2, name.length() - 2);
+            if (context.getScopeChain().containsKey(name)) {
+                name = context.getScopeChain().get(name).toString();
             }
-            writer.write(this.name);
+            writer.write(EnvProxy.reference(name));
             return;
-        } else if (context.getScopeChain().containsKey(this.name)) {
-            this.name = context.getScopeChain().get(this.name).toString();
-            if (this.name.startsWith("!")) {
-                writer.write(this.name.replaceAll("!",""));
+        } else if (context.getScopeChain().containsKey(name)) {
+            name = context.getScopeChain().get(name).toString();
+            if (name.startsWith("!")) {
+                writer.write(name.replaceAll("!",""));
                 return;
             }
         }
-        writer.write(this.name + Config.SPLIT_SYMBOL + Config.VAR_COUNTER.get());
+        writer.write(EnvProxy.reference(EnvProxy.currentName(name)));
     }
 
     /** {@inheritDoc} */
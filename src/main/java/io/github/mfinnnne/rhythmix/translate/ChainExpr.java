@@ -7,10 +7,21 @@ import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.lexer.Lexer;
 import io.github.mfinnnne.rhythmix.lexer.Token;
 import io.github.mfinnnne.rhythmix.lexer.TokenType;
+import io.github.mfinnnne.rhythmix.lib.ChainQueue;
+import io.github.mfinnnne.rhythmix.lib.ExponentialStats;
+import io.github.mfinnnne.rhythmix.lib.NumericChainQueue;
+import io.github.mfinnnne.rhythmix.lib.NumericColumns;
+import io.github.mfinnnne.rhythmix.lib.QuantileSketch;
+import io.github.mfinnnne.rhythmix.lib.SlidingStats;
+import io.github.mfinnnne.rhythmix.lib.WindowAccumulator;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNodeTypes;
 import io.github.mfinnnne.rhythmix.parser.ast.Expr;
 import io.github.mfinnnne.rhythmix.translate.chain.*;
+import io.github.mfinnnne.rhythmix.udf.BatchChainCalculatorUDF;
+import io.github.mfinnnne.rhythmix.udf.CalculatorUDFRegistry;
+import io.github.mfinnnne.rhythmix.udf.IncrementalChainCalculatorUDF;
+import io.github.mfinnnne.rhythmix.udf.UDFAccumulator;
 import io.github.mfinnnne.rhythmix.util.ParserUtils;
 import io.github.mfinnnne.rhythmix.util.PeekTokenIterator;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
@@ -32,6 +43,50 @@ import static io.github.mfinnnne.rhythmix.pebble.TemplateEngine.ENGINE;
 @Slf4j
 public class ChainExpr {
 
+    /**
+     * State variable of the {@link WindowAccumulator} kept by windowed chains: a {@link SlidingStats}
+     * or the {@link UDFAccumulator} of an incremental calculator UDF, see
+     * {@link #hasSlidingStats(EnvProxy)}.
+     */
+    public static final String CHAIN_STATS = "chainStats";
+
+    /**
+     * State variable of the {@link ExponentialStats} kept by exponentially weighted chains, see
+     * {@link #hasExponentialStats(EnvProxy)}.
+     */
+    public static final String CHAIN_EWMA = "chainEwma";
+
+    /**
+     * State variable of the {@link NumericColumns} a batch calculator UDF reads the window from,
+     * see {@link #hasNumericColumns(EnvProxy)}.
+     */
+    public static final String CHAIN_COLUMNS = "chainColumns";
+
+    /**
+     * Built-in calculators that can read a {@link SlidingStats} instead of the queue.
+     */
+    private static final List<String> SLIDING_AGGREGATES = Arrays.asList("sum", "avg", "count", "stddev", "max", "min", "range", "percentile", "median");
+
+    /**
+     * Built-in calculators reading the extremes of a {@link SlidingStats}.
+     */
+    private static final List<String> EXTREMES = Arrays.asList("max", "min", "range");
+
+    /**
+     * Built-in calculators reading the percentiles of a {@link SlidingStats}.
+     */
+    private static final List<String> QUANTILES = Arrays.asList("percentile", "median");
+
+    /**
+     * Built-in calculators reading an {@link ExponentialStats}.
+     */
+    private static final List<String> EXPONENTIAL = Arrays.asList("ewma", "ewmvar");
+
+    /**
+     * Built-in calculators, which only read the timestamp and the value of the events.
+     */
+    private static final List<String> BUILTIN_CALCULATORS = Arrays.asList("sum", "avg", "count", "stddev", "hitRate", "max", "min", "range", "percentile", "median", "ewma", "ewmvar");
+
     /**
      * <p>translate.</p>
      *
@@ -79,16 +134,34 @@ public class ChainExpr {
         try {
             PebbleTemplate chainTemplate = ENGINE.getTemplate("expr/chain.peb");
             Writer writer = new StringWriter();
-            env.put("rawChainQueue", new ArrayList<>());
-            env.put("processedChainQueue", new ArrayList<>());
-            env.put("chainResult", null);
-            env.put("debugChainResult", null);
             List<String> allCallStmtLabel = ParserUtils.getAllCallStmtLabel(astNode);
             filterAutoAdd(astNode, allCallStmtLabel);
             if (allCallStmtLabel.contains("limit") && allCallStmtLabel.contains("window")) {
                 throw  new TranslatorException("limit and window cannot be used together", Objects.requireNonNull(ParserUtils.getNodeByLabel(astNode, "limit")).getLexeme());
             }
+            checkExponential(astNode, allCallStmtLabel);
             ChainExprSyntaxCheck.check(astNode);
+            env.put("rawChainQueue", newRawQueue(astNode, allCallStmtLabel));
+            env.put("processedChainQueue", new ChainQueue.View());
+            env.put("chainResult", null);
+            env.put("debugChainResult", null);
+            IncrementalChainCalculatorUDF<?> incremental = incrementalCalculator(allCallStmtLabel);
+            if (incremental != null && isSlidingWindow(astNode, allCallStmtLabel)) {
+                env.put(CHAIN_STATS, new UDFAccumulator<>(incremental));
+            } else if (allCallStmtLabel.stream().anyMatch(ChainExpr::isBatchCalculator)) {
+                env.put(CHAIN_COLUMNS, new NumericColumns());
+            } else if (isSlidingAggregate(astNode, allCallStmtLabel)) {
+                env.put(CHAIN_STATS, new SlidingStats(allCallStmtLabel.stream().anyMatch(EXTREMES::contains),
+                        allCallStmtLabel.stream().anyMatch(QUANTILES::contains), 0));
+            } else if (isGrowingQuantile(astNode, allCallStmtLabel)) {
+                env.put(CHAIN_STATS, new SlidingStats(false, false, sketchSize(astNode)));
+            }
+            for (String label : EXPONENTIAL) {
+                ASTNode node = ParserUtils.getNodeByLabel(astNode, label);
+                if (node != null) {
+                    env.put(CHAIN_EWMA, Calculator.Exponential.create(node));
+                }
+            }
             String code = recursiveTrans(astNode, env);
             context.put("chainFuncs", ParserUtils.getAllCallStmtLabel(astNode));
             context.put("chainSobelCode", code);
@@ -102,6 +175,190 @@ public class ChainExpr {
         }
     }
 
+    /**
+     * An exponentially weighted calculator weighs every event accepted by the filter since the
+     * last clear; it has no window, so a window, limit or take before it is rejected rather than
+     * ignored.
+     */
+    private static void checkExponential(ASTNode astNode, List<String> labels) throws TranslatorException {
+        String exponential = labels.stream().filter(EXPONENTIAL::contains).findFirst().orElse(null);
+        if (exponential == null) {
+            return;
+        }
+        for (String label : new String[]{"window", "limit", "take"}) {
+            ASTNode node = ParserUtils.getNodeByLabel(astNode, label);
+            if (node != null) {
+                throw new TranslatorException("{} cannot be used with {}", node.getLexeme(), label, exponential);
+            }
+        }
+    }
+
+    /**
+     * Whether the chain being translated keeps a {@link SlidingStats} of its window: the
+     * limit or window operator then adds and removes events as they enter and leave the window,
+     * and the calculator reads the aggregate from it in constant time.
+     *
+     * @param env the environment being translated
+     * @return {@code true} if the chain keeps running aggregates
+     */
+    public static boolean hasSlidingStats(EnvProxy env) {
+        return env.isStateKey(env.name(CHAIN_STATS));
+    }
+
+    /**
+     * Whether the chain being translated reads its percentiles from a {@link QuantileSketch}:
+     * its window only grows, so the calculator adds each event itself.
+     *
+     * @param env the environment being translated
+     * @return {@code true} if the chain keeps a quantile sketch
+     */
+    public static boolean hasQuantileSketch(EnvProxy env) {
+        return hasSlidingStats(env) && env.get(CHAIN_STATS) instanceof SlidingStats
+                && ((SlidingStats) env.get(CHAIN_STATS)).hasSketch();
+    }
+
+    /**
+     * Whether the chain being translated keeps an {@link ExponentialStats}: the filter adds each
+     * accepted event to it and the calculator reads the weighted average or variance.
+     *
+     * @param env the environment being translated
+     * @return {@code true} if the chain keeps exponentially weighted aggregates
+     */
+    public static boolean hasExponentialStats(EnvProxy env) {
+        return env.isStateKey(env.name(CHAIN_EWMA));
+    }
+
+    /**
+     * Whether the chain being translated copies its window into a {@link NumericColumns} for a
+     * {@link BatchChainCalculatorUDF}.
+     *
+     * @param env the environment being translated
+     * @return {@code true} if the chain keeps numeric columns
+     */
+    public static boolean hasNumericColumns(EnvProxy env) {
+        return env.isStateKey(env.name(CHAIN_COLUMNS));
+    }
+
+    /**
+     * The raw queue of a count window or a count limit holds at most one event more than its
+     * length, so it is created with that capacity and never grows. A chain whose operators are
+     * all built-ins or batch calculator UDFs only keeps the timestamp and the value of its events,
+     * in a {@link NumericChainQueue}; other UDFs receive the whole events. An exponentially weighted
+     * calculator, or a quantile kept in a sketch, without window, limit or take only reads the
+     * latest event, so the queue keeps nothing more.
+     */
+    private static ChainQueue newRawQueue(ASTNode astNode, List<String> labels) {
+        boolean numeric = !hasFilterUDF(astNode) && labels.stream()
+                .filter(ChainFunctionConfig.getInstance().getCalcFunc()::contains)
+                .allMatch(label -> BUILTIN_CALCULATORS.contains(label) || isBatchCalculator(label));
+        if (numeric && (labels.stream().anyMatch(EXPONENTIAL::contains) || isGrowingQuantile(astNode, labels))
+                && Collections.disjoint(labels, Arrays.asList("window", "limit", "take", "collect"))) {
+            return new NumericChainQueue(1, true);
+        }
+        for (String label : new String[]{"window", "limit"}) {
+            ASTNode node = ParserUtils.getNodeByLabel(astNode, label);
+            if (node != null && node.getChildren(0).getChildren().size() == 1) {
+                try {
+                    long length = Long.parseLong(node.getChildren(0).getChildren(0).getLabel());
+                    if (length > 0 && length < Integer.MAX_VALUE) {
+                        return numeric ? new NumericChainQueue((int) length + 1) : new ChainQueue((int) length + 1);
+                    }
+                } catch (NumberFormatException ignored) {
+                    // reported by the operator's translator
+                }
+            }
+        }
+        return numeric ? new NumericChainQueue() : new ChainQueue();
+    }
+
+    /**
+     * A chain can keep running aggregates when a built-in aggregate reads a sliding window.
+     */
+    private static boolean isSlidingAggregate(ASTNode astNode, List<String> labels) {
+        return labels.stream().anyMatch(SLIDING_AGGREGATES::contains) && isSlidingWindow(astNode, labels);
+    }
+
+    /**
+     * The calculator UDF of the chain, if it is incremental.
+     */
+    private static IncrementalChainCalculatorUDF<?> incrementalCalculator(List<String> labels) {
+        for (String label : labels) {
+            if (CalculatorUDFRegistry.getCalculatorUDF(label) instanceof IncrementalChainCalculatorUDF) {
+                return (IncrementalChainCalculatorUDF<?>) CalculatorUDFRegistry.getCalculatorUDF(label);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether a call is a calculator UDF reading primitive arrays.
+     */
+    private static boolean isBatchCalculator(String label) {
+        return CalculatorUDFRegistry.getCalculatorUDF(label) instanceof BatchChainCalculatorUDF;
+    }
+
+    /**
+     * Whether the window read by the calculator only changes by its ends, each event entering
+     * and leaving it once, in order: a count window or a limit, without take and without a
+     * filter UDF, which may rewrite the whole queue.
+     */
+    private static boolean isSlidingWindow(ASTNode astNode, List<String> labels) {
+        if (labels.contains("take")) {
+            return false;
+        }
+        ASTNode window = ParserUtils.getNodeByLabel(astNode, "window");
+        if (window != null && window.getChildren(0).getChildren().size() != 1) {
+            return false;
+        }
+        if (window == null && !labels.contains("limit")) {
+            return false;
+        }
+        return !hasFilterUDF(astNode);
+    }
+
+    /**
+     * Whether the chain is filtered by a UDF, or starts with one.
+     */
+    private static boolean hasFilterUDF(ASTNode astNode) {
+        ASTNode filter = ParserUtils.getNodeByLabel(astNode, "filter");
+        if (filter == null) {
+            return true;
+        }
+        List<ASTNode> args = filter.getChildren(0).getChildren();
+        return !args.isEmpty() && args.get(0).getType() == ASTNodeTypes.VARIABLE
+                && !args.get(0).getChildren().isEmpty()
+                && args.get(0).getChildren(0).getType() == ASTNodeTypes.CALL_STMT;
+    }
+
+    /**
+     * A percentile of a chain without window, limit or take reads every event accepted since
+     * the last clear, an unbounded window kept approximately in a sketch.
+     */
+    private static boolean isGrowingQuantile(ASTNode astNode, List<String> labels) {
+        if (labels.stream().noneMatch(QUANTILES::contains)) {
+            return false;
+        }
+        if (labels.contains("window") || labels.contains("limit") || labels.contains("take")) {
+            return false;
+        }
+        return !hasFilterUDF(astNode);
+    }
+
+    /**
+     * The accuracy parameter of the sketch: the second argument of {@code percentile(p, k)}.
+     */
+    private static int sketchSize(ASTNode astNode) {
+        ASTNode percentile = ParserUtils.getNodeByLabel(astNode, "percentile");
+        if (percentile != null && percentile.getChildren(0).getChildren().size() == 2) {
+            try {
+                return Integer.parseInt(percentile.getChildren(0).getChildren(1).getLabel());
+            } catch (NumberFormatException ignored) {
+                // reported by the percentile translator
+            }
+        }
+        return QuantileSketch.DEFAULT_K;
+    }
+
     private static void filterAutoAdd(ASTNode astNode, List<String> allCallStmtLabel) throws LexicalException, ParseException {
         String filterName = allCallStmtLabel.get(0);
 
@@ -146,6 +403,18 @@ public class ChainExpr {
                         return Meet.translate(astNode, env);
                     case "stddev":
                         return Calculator.Stddev.translate(astNode, env);
+                    case "max":
+                        return Calculator.Max.translate(astNode, env);
+                    case "min":
+                        return Calculator.Min.translate(astNode, env);
+                    case "range":
+                        return Calculator.Range.translate(astNode, env);
+                    case "percentile":
+                    case "median":
+                        return Calculator.Percentile.translate(astNode, env);
+                    case "ewma":
+                    case "ewmvar":
+                        return Calculator.Exponential.translate(astNode, env);
                     case "count":
                         return Calculator.Count.translate(astNode, env);
                     case "hitRate":
@@ -9,6 +9,7 @@ package io.github.mfinnnne.rhythmix.translate;
 
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.lexer.Token;
+import io.github.mfinnnne.rhythmix.lib.Coerce;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
 import io.github.mfinnnne.rhythmix.parser.ast.CompareStmt;
 import io.github.mfinnnne.rhythmix.util.PeekTokenIterator;
@@ -78,10 +79,12 @@ public class CompareExpr {
                 }
             }
             if (arg.getLexeme().isVariable()) {
-                context.put("comparedValue", env.getEnv().get(arg.getLabel()));
+                Object value = env.getEnv().get(arg.getLabel());
+                context.put("comparedValue", value);
+                context.put("type", valueType(value));
             } else {
                 context.put("comparedValue", arg.getLexeme().getValue());
-
+                context.put("type", literalType(arg.getLexeme()));
             }
             template.evaluate(writer, context);
             return writer.toString().replaceAll("\\r|\\n|\\s", "");
@@ -110,6 +113,39 @@ public class CompareExpr {
 
     }
 
+    /**
+     * Gets the kind of comparison to emit for a literal: {@code number} and {@code boolean}
+     * coerce the compared value once before comparing, {@code string} compares directly.
+     *
+     * @param literal the literal the value is compared with
+     * @return the comparison type
+     */
+    static String literalType(Token literal) {
+        if (literal.isNumber()) {
+            return "number";
+        }
+        if (literal.isBoolean()) {
+            return "boolean";
+        }
+        return "string";
+    }
+
+    /**
+     * Gets the kind of comparison to emit for the value of a user variable.
+     *
+     * @param value the value the compared value is compared with
+     * @return the comparison type, {@code dynamic} when it is only known at runtime
+     */
+    static String valueType(Object value) {
+        if (value instanceof Number || value instanceof String && Coerce.parseNumber((String) value) != null) {
+            return "number";
+        }
+        if (value instanceof Boolean) {
+            return "boolean";
+        }
+        return "dynamic";
+    }
+
     /**
      * <p>isCompareExpr.</p>
      *
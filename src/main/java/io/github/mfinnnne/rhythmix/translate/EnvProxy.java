@@ -4,21 +4,96 @@ import io.github.mfinnnne.rhythmix.config.Config;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * <p>EnvProxy class.</p>
+ * <p>
+ * State variables registered with {@link #put(String, Object)} get a fixed slot index and are
+ * stored in one {@code Object[]} held under {@link #STATE}; the translated code accesses them
+ * as {@code $state[index]}. Everything else (UDF maps, user variables, the current event) is
+ * kept as plain entries of the environment map.
  *
  * author MFine
  * version $Id: $Id
  */
-@Getter
-@Setter
 public class EnvProxy{
 
+    /**
+     * Name of the environment entry holding the state slots.
+     */
+    public static final String STATE = "$state";
+
+    private static final ThreadLocal<EnvProxy> CURRENT = new ThreadLocal<>();
 
+    @Getter
+    @Setter
     private HashMap<String, Object> env = new HashMap<>();
 
+    /**
+     * Name of every state variable, by slot index.
+     */
+    private List<String> stateNames = new ArrayList<>();
+
+    private Map<String, Integer> stateIndex = new HashMap<>();
+
+    /**
+     * Per-compilation naming context: suffix of the names generated for the function being
+     * translated. Each environment numbers its own functions from 0 in translation order,
+     * so names only depend on the position of the function in the rule: the same rule
+     * always translates to the same script and shares one compiled expression.
+     */
+    private long nameId = 0;
+
+    /**
+     * Binds the environment being translated on the current thread, so that template nodes
+     * can resolve state variables to their slots.
+     *
+     * @param env the environment being translated, or {@code null} to unbind
+     * @return the previously bound environment
+     */
+    public static EnvProxy bind(EnvProxy env) {
+        EnvProxy previous = CURRENT.get();
+        if (env == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(env);
+        }
+        return previous;
+    }
+
+    /**
+     * Gets the name of a variable of the function currently being translated, in the
+     * environment bound to this thread.
+     *
+     * @param key the variable name as written in the template
+     * @return the variable name suffixed with the current name id
+     */
+    public static String currentName(String key) {
+        EnvProxy env = CURRENT.get();
+        return key + Config.SPLIT_SYMBOL + (env == null ? 0 : env.nameId);
+    }
+
+    /**
+     * Gets the code reference of a variable in the environment currently being translated.
+     *
+     * @param name a variable name as rendered in the template
+     * @return {@code $state[index]} for a state variable, the name itself otherwise
+     */
+    public static String reference(String name) {
+        EnvProxy env = CURRENT.get();
+        if (env == null) {
+            return name;
+        }
+        Integer index = env.stateIndex.get(name);
+        return index == null ? name : STATE + "[" + index + "]";
+    }
+
     /**
      * <p>put.</p>
      *
@@ -26,7 +101,45 @@ public class EnvProxy{
      * @param value a {@link java.lang.Object} object.
      */
     public void put(String key, Object value) {
-        this.env.put(key +Config.SPLIT_SYMBOL+ Config.VAR_COUNTER.get(), value);
+        String name = name(key);
+        Object[] state = getStateValues();
+        Integer index = this.stateIndex.get(name);
+        if (index == null) {
+            index = this.stateNames.size();
+            this.stateNames.add(name);
+            this.stateIndex.put(name, index);
+            state = Arrays.copyOf(state, index + 1);
+            this.env.put(STATE, state);
+        }
+        state[index] = value;
+    }
+
+    /**
+     * Starts naming a new function of this compilation.
+     *
+     * @return the new name id
+     */
+    public long nextId() {
+        return ++this.nameId;
+    }
+
+    /**
+     * Gets the name id of the function being translated.
+     *
+     * @return the current name id
+     */
+    public long currentId() {
+        return this.nameId;
+    }
+
+    /**
+     * Gets the name of a variable of the function being translated.
+     *
+     * @param key the variable name
+     * @return the variable name suffixed with the current name id
+     */
+    public String name(String key) {
+        return key + Config.SPLIT_SYMBOL + this.nameId;
     }
 
     /**
@@ -57,7 +170,7 @@ public class EnvProxy{
      * @return a {@link java.lang.Object} object.
      */
     public Object get(String key) {
-        return this.env.get(key + Config.VAR_COUNTER.get());
+        return getState(name(key));
     }
 
     /**
@@ -80,4 +193,74 @@ public class EnvProxy{
         return !this.env.containsKey(key);
     }
 
+    /**
+     * <p>isStateKey.</p>
+     *
+     * @param key a {@link java.lang.String} object.
+     * @return true if the key names a state variable created by the translator.
+     */
+    public boolean isStateKey(String key) {
+        return this.stateIndex.containsKey(key);
+    }
+
+    /**
+     * Gets the current value of a state variable.
+     *
+     * @param name the full state variable name
+     * @return its value, or {@code null} if there is no such state variable
+     */
+    public Object getState(String name) {
+        Integer index = this.stateIndex.get(name);
+        return index == null ? null : getStateValues()[index];
+    }
+
+    /**
+     * Gets the current value of every state variable, by name, in slot order.
+     * Intended for inspection and debugging; the map is a copy.
+     *
+     * @return the state variables
+     */
+    public Map<String, Object> getStates() {
+        Object[] state = getStateValues();
+        Map<String, Object> states = new LinkedHashMap<>();
+        for (int i = 0; i < this.stateNames.size(); i++) {
+            states.put(this.stateNames.get(i), state[i]);
+        }
+        return states;
+    }
+
+    /**
+     * Gets the name of every state variable, by slot index.
+     *
+     * @return the state variable names
+     */
+    public String[] getStateNames() {
+        return this.stateNames.toArray(new String[0]);
+    }
+
+    /**
+     * Gets the live state slots of this environment.
+     *
+     * @return the slot array, never {@code null}
+     */
+    public Object[] getStateValues() {
+        Object state = this.env.get(STATE);
+        return state == null ? new Object[0] : (Object[]) state;
+    }
+
+    /**
+     * Creates an environment sharing this one's slot layout but backed by another map.
+     *
+     * @param env the map to use, holding its own {@link #STATE} slots
+     * @return a new {@link EnvProxy}
+     */
+    public EnvProxy withEnv(HashMap<String, Object> env) {
+        EnvProxy proxy = new EnvProxy();
+        proxy.env = env;
+        proxy.stateNames = this.stateNames;
+        proxy.stateIndex = this.stateIndex;
+        proxy.nameId = this.nameId;
+        return proxy;
+    }
+
 }
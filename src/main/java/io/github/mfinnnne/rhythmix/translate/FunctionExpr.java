@@ -7,13 +7,15 @@
  */
 package io.github.mfinnnne.rhythmix.translate;
 
-import cn.hutool.core.util.ClassUtil;
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
+import io.github.mfinnnne.rhythmix.translate.function.CountTranslate;
+import io.github.mfinnnne.rhythmix.translate.function.DelayTranslate;
 import io.github.mfinnnne.rhythmix.translate.function.FunctionTranslate;
+import io.github.mfinnnne.rhythmix.translate.function.KeepTranslate;
+import io.github.mfinnnne.rhythmix.translate.function.SlopeTranslate;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,19 +34,10 @@ public class FunctionExpr {
     private static final Map<String, FunctionTranslate> FUNCTION_TRANSLATE_MAP = new HashMap<>();
 
     static {
-        ClassUtil.scanPackage(FunctionTranslate.class.getPackageName()).forEach((clazz) -> {
-            try {
-                if (clazz.isInterface()) {
-                    return;
-                }
-                if (FunctionTranslate.class.isAssignableFrom(clazz)) {
-                    register((FunctionTranslate) clazz.getDeclaredConstructor().newInstance());
-                }
-            } catch (InstantiationException | IllegalAccessException |
-                     InvocationTargetException | NoSuchMethodException e) {
-                log.error(e.getMessage());
-            }
-        });
+        register(new CountTranslate());
+        register(new DelayTranslate());
+        register(new KeepTranslate());
+        register(new SlopeTranslate());
     }
 
     private static void register(FunctionTranslate functionTranslate) {
@@ -9,6 +9,7 @@ package io.github.mfinnnne.rhythmix.translate;
 
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
+import io.github.mfinnnne.rhythmix.parser.ast.ASTNodeTypes;
 import io.github.mfinnnne.rhythmix.parser.ast.RangeStmt;
 import io.github.mfinnnne.rhythmix.util.PeekTokenIterator;
 import io.github.mfinnnne.rhythmix.lexer.Token;
@@ -73,6 +74,7 @@ public class RangeExpr {
             Writer writer = new StringWriter();
             context.put("leftValue", Translator.translate(arg1, context, env));
             context.put("rightValue", Translator.translate(arg2, context, env));
+            context.put("numeric", isNumeric(arg1, env) && isNumeric(arg2, env));
             if ("(".equals(leftSymbol.getValue())) {
                 context.put("leftSymbol", ">");
             }
@@ -96,6 +98,20 @@ public class RangeExpr {
 
     }
 
+    /**
+     * Whether a bound of the range is known to be a number when translating, in which case the
+     * compared value is coerced to a number once before both comparisons.
+     */
+    private static boolean isNumeric(ASTNode bound, EnvProxy env) {
+        if (bound.getType() == ASTNodeTypes.SCALAR) {
+            return bound.getLexeme().isNumber();
+        }
+        if (bound.getType() == ASTNodeTypes.VARIABLE && bound.getChildren().isEmpty()) {
+            return "number".equals(CompareExpr.valueType(env.rawGet(bound.getLabel())));
+        }
+        return false;
+    }
+
     /**
      * <p>translate.</p>
      *
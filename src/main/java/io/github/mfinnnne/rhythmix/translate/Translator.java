@@ -9,7 +9,6 @@ import io.github.mfinnnne.rhythmix.lexer.Token;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNodeTypes;
 import io.github.mfinnnne.rhythmix.parser.ast.Expr;
-import io.github.mfinnnne.rhythmix.config.Config;
 import io.github.mfinnnne.rhythmix.util.PeekTokenIterator;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
 import lombok.extern.slf4j.Slf4j;
@@ -64,6 +63,7 @@ public class Translator {
      */
     public static String translate(String code, Map<String, Object> context, EnvProxy env) throws TranslatorException {
 
+        EnvProxy previous = EnvProxy.bind(env);
         try {
             PebbleTemplate baseTemplate = ENGINE.getTemplate("expr/base.peb");
             Lexer lexer = new Lexer();
@@ -87,6 +87,8 @@ public class Translator {
                 e.getCharacterPosition(), e.getLine(), e.getColumn());
         } catch (Exception e) {
             throw new TranslatorException( e.getMessage());
+        } finally {
+            EnvProxy.bind(previous);
         }
     }
 
@@ -105,10 +107,10 @@ public class Translator {
         String code;
         switch (astNode.getType()) {
             case ARROW_EXPR:
-                Config.VAR_COUNTER.incrementAndGet();
+                env.nextId();
                 code = ArrowExpr.translate(astNode, context, env);
                 ((ArrayList<String>) context.get("baseCodes")).add(code);
-                return "arrow" + Config.SPLIT_SYMBOL + Config.VAR_COUNTER.get() + "()";
+                return env.name("arrow") + "()";
             case RANGE_EXPR:
                 return RangeExpr.translate(astNode, context, env);
             case COMPARE_EXPR:
@@ -116,14 +118,14 @@ public class Translator {
             case VARIABLE:
                 // 函数调用
                 if (!astNode.getChildren().isEmpty() && astNode.getChildren(0).getType() == ASTNodeTypes.CALL_STMT) {
-                    Config.VAR_COUNTER.incrementAndGet();
+                    env.nextId();
                     if (astNode.getLabel().endsWith("!")) {
                         context.put("strict", true);
                         astNode.setLabel(astNode.getLabel().substring(0,astNode.getLabel().length()-1));
                     }
                     code = FunctionExpr.translate(astNode, context, env);
                     ((ArrayList<String>) context.get("baseCodes")).add(code);
-                    return astNode.getLabel() + Config.SPLIT_SYMBOL + Config.VAR_COUNTER.get() + "()";
+                    return env.name(astNode.getLabel()) + "()";
                 } else {
                     if (env.containsKey(astNode.getLabel())) {
                         throw new TranslatorException("Undefined variable: '{}'", astNode.getLexeme(), astNode.getLabel());
@@ -131,8 +133,8 @@ public class Translator {
                     return env.rawGet(astNode.getLabel()).toString();
                 }
             case CHAIN_EXPR:
-                Config.VAR_COUNTER.incrementAndGet();
-                String name = "chain" + Config.SPLIT_SYMBOL + Config.VAR_COUNTER.get() + "()";
+                env.nextId();
+                String name = env.name("chain") + "()";
                 context.put("funcName", name);
 
                 code = ChainExpr.translate(astNode, context, env);
@@ -1,15 +1,23 @@
 package io.github.mfinnnne.rhythmix.translate.chain;
 
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.lib.ExponentialStats;
+import io.github.mfinnnne.rhythmix.lib.HitCounter;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
+import io.github.mfinnnne.rhythmix.translate.ChainExpr;
 import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.github.mfinnnne.rhythmix.translate.Translator;
+import io.github.mfinnnne.rhythmix.udf.CalculatorUDFRegistry;
+import io.github.mfinnnne.rhythmix.udf.ChainCalculatorUDF;
+import io.github.mfinnnne.rhythmix.udf.UDFFunctions;
+import io.github.mfinnnne.rhythmix.util.TranslateUtil;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
 
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.github.mfinnnne.rhythmix.pebble.TemplateEngine.ENGINE;
@@ -46,6 +54,7 @@ public class Calculator {
                     throw new TranslatorException("sum函数不需要参数");
                 }
                 context.put("funcName", name);
+                context.put("stats", ChainExpr.hasSlidingStats(env));
                 FILTER.evaluate(writer, context);
                 return writer.toString();
             } catch (Exception e) {
@@ -78,6 +87,7 @@ public class Calculator {
                     throw new TranslatorException("avg函数不需要参数");
                 }
                 context.put("funcName", name);
+                context.put("stats", ChainExpr.hasSlidingStats(env));
                 FILTER.evaluate(writer, context);
                 return writer.toString();
             } catch (Exception e) {
@@ -111,6 +121,7 @@ public class Calculator {
                     throw new TranslatorException("stddev function does not require parameters");
                 }
                 context.put("funcName", name);
+                context.put("stats", ChainExpr.hasSlidingStats(env));
                 FILTER.evaluate(writer, context);
                 return writer.toString();
             } catch (Exception e) {
@@ -143,6 +154,7 @@ public class Calculator {
                     throw new TranslatorException("count函数不需要参数");
                 }
                 context.put("funcName", name);
+                context.put("stats", ChainExpr.hasSlidingStats(env));
                 FILTER.evaluate(writer, context);
                 return writer.toString();
             } catch (Exception e) {
@@ -151,11 +163,234 @@ public class Calculator {
         }
     }
 
+    /**
+     * Translates the "max" function in a chain expression.
+     */
+    public static class Max {
+        private static final PebbleTemplate FILTER = ENGINE.getTemplate("expr/chain/max.peb");
+
+        /**
+         * Translates the given ASTNode into a string representation of the max function.
+         *
+         * @param astNode The ASTNode to be translated.
+         * @param env     The environment proxy.
+         * @return The translated string.
+         * @throws TranslatorException if the translation fails.
+         */
+        public static String translate(ASTNode astNode, EnvProxy env) throws TranslatorException {
+
+            try {
+                Writer writer = new StringWriter();
+                Map<String, Object> context = new HashMap<>();
+                String name = astNode.getLabel();
+                if (!astNode.getChildren(0).getChildren().isEmpty()) {
+                    throw new TranslatorException("max function does not require parameters");
+                }
+                context.put("funcName", name);
+                context.put("stats", ChainExpr.hasSlidingStats(env));
+                FILTER.evaluate(writer, context);
+                return writer.toString();
+            } catch (Exception e) {
+                throw new TranslatorException("translate max error", astNode.getLexeme());
+            }
+        }
+    }
+
+    /**
+     * Translates the "min" function in a chain expression.
+     */
+    public static class Min {
+        private static final PebbleTemplate FILTER = ENGINE.getTemplate("expr/chain/min.peb");
+
+        /**
+         * Translates the given ASTNode into a string representation of the min function.
+         *
+         * @param astNode The ASTNode to be translated.
+         * @param env     The environment proxy.
+         * @return The translated string.
+         * @throws TranslatorException if the translation fails.
+         */
+        public static String translate(ASTNode astNode, EnvProxy env) throws TranslatorException {
+
+            try {
+                Writer writer = new StringWriter();
+                Map<String, Object> context = new HashMap<>();
+                String name = astNode.getLabel();
+                if (!astNode.getChildren(0).getChildren().isEmpty()) {
+                    throw new TranslatorException("min function does not require parameters");
+                }
+                context.put("funcName", name);
+                context.put("stats", ChainExpr.hasSlidingStats(env));
+                FILTER.evaluate(writer, context);
+                return writer.toString();
+            } catch (Exception e) {
+                throw new TranslatorException("translate min error", astNode.getLexeme());
+            }
+        }
+    }
+
+    /**
+     * Translates the "range" function in a chain expression.
+     */
+    public static class Range {
+        private static final PebbleTemplate FILTER = ENGINE.getTemplate("expr/chain/range.peb");
+
+        /**
+         * Translates the given ASTNode into a string representation of the range function.
+         *
+         * @param astNode The ASTNode to be translated.
+         * @param env     The environment proxy.
+         * @return The translated string.
+         * @throws TranslatorException if the translation fails.
+         */
+        public static String translate(ASTNode astNode, EnvProxy env) throws TranslatorException {
+
+            try {
+                Writer writer = new StringWriter();
+                Map<String, Object> context = new HashMap<>();
+                String name = astNode.getLabel();
+                if (!astNode.getChildren(0).getChildren().isEmpty()) {
+                    throw new TranslatorException("range function does not require parameters");
+                }
+                context.put("funcName", name);
+                context.put("stats", ChainExpr.hasSlidingStats(env));
+                FILTER.evaluate(writer, context);
+                return writer.toString();
+            } catch (Exception e) {
+                throw new TranslatorException("translate range error", astNode.getLexeme());
+            }
+        }
+    }
+
+    /**
+     * Translates the "percentile" and "median" functions in a chain expression:
+     * {@code percentile(p)}, {@code percentile(p, k)} with the accuracy of the sketch kept for a
+     * window that only grows, and {@code median()} for {@code percentile(50)}.
+     */
+    public static class Percentile {
+        private static final PebbleTemplate FILTER = ENGINE.getTemplate("expr/chain/percentile.peb");
+
+        /**
+         * Translates the given ASTNode into a string representation of the percentile function.
+         *
+         * @param astNode The ASTNode to be translated.
+         * @param env     The environment proxy.
+         * @return The translated string.
+         * @throws TranslatorException if the translation fails.
+         */
+        public static String translate(ASTNode astNode, EnvProxy env) throws TranslatorException {
+            String name = astNode.getLabel();
+            List<ASTNode> args = astNode.getChildren(0).getChildren();
+            double p = 50;
+            if ("median".equals(name)) {
+                if (!args.isEmpty()) {
+                    throw new TranslatorException("median function does not require parameters", astNode.getLexeme());
+                }
+            } else {
+                if (args.isEmpty() || args.size() > 2) {
+                    throw new TranslatorException("percentile function requires 1-2 parameters", astNode.getLexeme());
+                }
+                try {
+                    p = Double.parseDouble(args.get(0).getLabel());
+                    if (args.size() == 2 && Integer.parseInt(args.get(1).getLabel()) < 8) {
+                        throw new TranslatorException("percentile accuracy must be at least 8", astNode.getLexeme());
+                    }
+                } catch (NumberFormatException e) {
+                    throw new TranslatorException("percentile parameters must be numbers", astNode.getLexeme());
+                }
+                if (p < 0 || p > 100) {
+                    throw new TranslatorException("percentile must be between 0 and 100", astNode.getLexeme());
+                }
+            }
+            try {
+                Writer writer = new StringWriter();
+                Map<String, Object> context = new HashMap<>();
+                context.put("funcName", name);
+                context.put("p", p);
+                context.put("stats", ChainExpr.hasSlidingStats(env));
+                context.put("sketch", ChainExpr.hasQuantileSketch(env));
+                FILTER.evaluate(writer, context);
+                return writer.toString();
+            } catch (Exception e) {
+                throw new TranslatorException("translate {} error", astNode.getLexeme(), name);
+            }
+        }
+    }
+
+    /**
+     * Translates the "ewma" and "ewmvar" functions in a chain expression: the exponentially
+     * weighted moving average and variance of every event accepted since the last clear.
+     * {@code ewma(0.2)} weighs each new event by 0.2; {@code ewma(10s)} by the time elapsed
+     * since the previous event, with a half-life of 10 seconds.
+     */
+    public static class Exponential {
+        private static final PebbleTemplate FILTER = ENGINE.getTemplate("expr/chain/ewma.peb");
+
+        /**
+         * Creates the accumulator described by the arguments of the function.
+         *
+         * @param astNode The ASTNode of the function.
+         * @return an empty accumulator
+         * @throws TranslatorException if the arguments are not a weight or a half-life.
+         */
+        public static ExponentialStats create(ASTNode astNode) throws TranslatorException {
+            String name = astNode.getLabel();
+            List<ASTNode> args = astNode.getChildren(0).getChildren();
+            try {
+                if (args.size() == 1) {
+                    double alpha = Double.parseDouble(args.get(0).getLabel());
+                    if (!(alpha > 0 && alpha <= 1)) {
+                        throw new TranslatorException("{} weight must be greater than 0 and at most 1", astNode.getLexeme(), name);
+                    }
+                    return new ExponentialStats(alpha);
+                }
+                if (args.size() == 2) {
+                    long halfLife = TranslateUtil.toMs(Long.parseLong(args.get(0).getLabel()), args.get(1).getLabel());
+                    if (halfLife <= 0) {
+                        throw new TranslatorException("{} half-life must be greater than 0", astNode.getLexeme(), name);
+                    }
+                    return ExponentialStats.halfLife(halfLife);
+                }
+            } catch (NumberFormatException e) {
+                throw new TranslatorException("{} parameter must be a number or a time", astNode.getLexeme(), name);
+            }
+            throw new TranslatorException("{} function requires a weight or a half-life", astNode.getLexeme(), name);
+        }
+
+        /**
+         * Translates the given ASTNode into a string representation of the function.
+         *
+         * @param astNode The ASTNode to be translated.
+         * @param env     The environment proxy, holding the accumulator.
+         * @return The translated string.
+         * @throws TranslatorException if the translation fails.
+         */
+        public static String translate(ASTNode astNode, EnvProxy env) throws TranslatorException {
+            try {
+                Writer writer = new StringWriter();
+                Map<String, Object> context = new HashMap<>();
+                context.put("funcName", astNode.getLabel());
+                FILTER.evaluate(writer, context);
+                return writer.toString();
+            } catch (Exception e) {
+                throw new TranslatorException("translate {} error", astNode.getLexeme(), astNode.getLabel());
+            }
+        }
+    }
+
     /**
      * Translates the "hitRate" function in a chain expression.
+     * <p>
+     * The predicate is evaluated once per event, the first time the calculator runs after the
+     * event entered the queue, and its result is kept in a {@link HitCounter}.
      */
     public static class HitRate {
 
+        /**
+         * State variable of the {@link HitCounter} of the raw queue.
+         */
+        private static final String HIT_COUNTER = "chainHits";
+
         /**
          * Translates the given ASTNode into a string representation of the hitRate function.
          *
@@ -175,6 +410,7 @@ public class Calculator {
                 String stateCode = Translator.translate(state, context, env);
                 context.put("funcName", name);
                 context.put("stateCode", stateCode);
+                env.put(HIT_COUNTER, new HitCounter());
                 template.evaluate(writer, context);
                 return writer.toString();
             } catch (Exception e) {
@@ -202,7 +438,14 @@ public class Calculator {
                 StringWriter stringWriter = new StringWriter();
                 Map<String, Object> context = new HashMap<>();
                 String funName = astNode.getLabel();
+                ChainCalculatorUDF udf = CalculatorUDFRegistry.getCalculatorUDF(funName);
+                if (udf == null) {
+                    throw new TranslatorException("{} is not a registered calculator UDF", astNode.getLexeme(), funName);
+                }
                 context.put("funcName", funName);
+                context.put("udfFunc", UDFFunctions.bind(env, udf));
+                context.put("stats", ChainExpr.hasSlidingStats(env));
+                context.put("columns", ChainExpr.hasNumericColumns(env));
                 template.evaluate(stringWriter, context);
                 return stringWriter.toString();
 
@@ -2,6 +2,7 @@ package io.github.mfinnnne.rhythmix.translate.chain;
 
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
+import io.github.mfinnnne.rhythmix.translate.ChainExpr;
 import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
 
@@ -41,6 +42,8 @@ public class Clear {
                 context.put("isUDF", true);
             }
             context.put("funcName", name);
+            context.put("stats", ChainExpr.hasSlidingStats(env));
+            context.put("ewma", ChainExpr.hasExponentialStats(env));
             template.evaluate(writer, context);
             return writer.toString();
         } catch (Exception e) {
@@ -10,9 +10,13 @@ package io.github.mfinnnne.rhythmix.translate.chain;
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNodeTypes;
+import io.github.mfinnnne.rhythmix.translate.ChainExpr;
 import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.github.mfinnnne.rhythmix.translate.Translator;
+import io.github.mfinnnne.rhythmix.udf.ChainFilterUDF;
 import io.github.mfinnnne.rhythmix.udf.FilterUDFRegistry;
+import io.github.mfinnnne.rhythmix.udf.IncrementalChainFilterUDF;
+import io.github.mfinnnne.rhythmix.udf.UDFFunctions;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
 
 import java.io.IOException;
@@ -51,6 +55,9 @@ public class Filter {
         context.put("funcName", name);
         context.put("isUDF", true);
         context.put("udfName", udfName);
+        context.put("udfFunc", bindUDF(udfName, env));
+        bindAppend(udfName, env, context);
+        context.put("ewma", ChainExpr.hasExponentialStats(env));
         FILTER.evaluate(writer, context);
         return writer.toString();
     }
@@ -83,6 +90,7 @@ public class Filter {
             Writer writer = new StringWriter();
             String name = astNode.getLabel();
             context.put("funcName", name);
+            context.put("ewma", ChainExpr.hasExponentialStats(env));
             if (astNode.getChildren(0).getChildren().isEmpty()) {
                 FILTER.evaluate(writer, context);
                 return writer.toString();
@@ -91,6 +99,7 @@ public class Filter {
             boolean strict = astNode.getChildren(0).getChildren().size() > 1 &&
                     Boolean.parseBoolean(astNode.getChildren(0).getChildren(1).getLexeme().getValue());
             context.put("strict", strict);
+            context.put("stats", ChainExpr.hasSlidingStats(env));
 
             // Check if this is a UDF function call by analyzing the AST
             if (isFilterUDFCall(state)) {
@@ -98,6 +107,8 @@ public class Filter {
                 String udfName = extractUDFName(state);
                 context.put("isUDF", true);
                 context.put("udfName", udfName);
+                context.put("udfFunc", bindUDF(udfName, env));
+                bindAppend(udfName, env, context);
                 FILTER.evaluate(writer, context);
                 return writer.toString();
             } else {
@@ -133,6 +144,28 @@ public class Filter {
         return false;
     }
 
+    /**
+     * Binds the function calling a registered filter UDF into the environment.
+     */
+    private static String bindUDF(String udfName, EnvProxy env) throws TranslatorException {
+        ChainFilterUDF udf = FilterUDFRegistry.getFilterUDF(udfName);
+        if (udf == null) {
+            throw new TranslatorException("{} is not a registered filter UDF", udfName);
+        }
+        return UDFFunctions.bind(env, udf);
+    }
+
+    /**
+     * Binds the function applying the evictions of an incremental filter UDF, which then
+     * replaces the rewrite of the queue.
+     */
+    private static void bindAppend(String udfName, EnvProxy env, Map<String, Object> context) {
+        ChainFilterUDF udf = FilterUDFRegistry.getFilterUDF(udfName);
+        if (udf instanceof IncrementalChainFilterUDF) {
+            context.put("udfAppend", UDFFunctions.bindAppend(env, (IncrementalChainFilterUDF) udf));
+        }
+    }
+
     /**
      * Extracts the UDF function name from the AST node
      */
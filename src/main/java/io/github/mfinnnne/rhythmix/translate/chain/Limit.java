@@ -9,6 +9,7 @@ package io.github.mfinnnne.rhythmix.translate.chain;
 
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
+import io.github.mfinnnne.rhythmix.translate.ChainExpr;
 import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.github.mfinnnne.rhythmix.util.TranslateUtil;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
@@ -61,6 +62,7 @@ public class Limit {
                 context.put("limitLength", Integer.parseInt(number));
             }
             context.put("funcName", name);
+            context.put("stats", ChainExpr.hasSlidingStats(env));
             FILTER.evaluate(writer, context);
             return writer.toString();
         } catch (TranslatorException | IOException e) {
@@ -4,6 +4,9 @@ import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
 import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.github.mfinnnne.rhythmix.translate.Translator;
+import io.github.mfinnnne.rhythmix.udf.ChainMeetUDF;
+import io.github.mfinnnne.rhythmix.udf.MeetUDFRegistry;
+import io.github.mfinnnne.rhythmix.udf.UDFFunctions;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
 
 import java.io.StringWriter;
@@ -39,7 +42,12 @@ public class Meet {
             Map<String, Object> context = new HashMap<>();
             String name = astNode.getLabel();
             if (isUDF) {
+                ChainMeetUDF udf = MeetUDFRegistry.getMeetUDF(name);
+                if (udf == null) {
+                    throw new TranslatorException("{} is not a registered meet UDF", name);
+                }
                 context.put("isUDF", true);
+                context.put("udfFunc", UDFFunctions.bind(env, udf));
             } else {
                 ASTNode state = astNode.getChildren(0).getChildren(0);
                 context.put("eventValue", "chainResult");
@@ -8,7 +8,9 @@
 package io.github.mfinnnne.rhythmix.translate.chain;
 
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.lib.TimeWindow;
 import io.github.mfinnnne.rhythmix.parser.ast.ASTNode;
+import io.github.mfinnnne.rhythmix.translate.ChainExpr;
 import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.github.mfinnnne.rhythmix.util.TranslateUtil;
 import io.pebbletemplates.pebble.template.PebbleTemplate;
@@ -32,6 +34,11 @@ import static io.github.mfinnnne.rhythmix.pebble.TemplateEngine.ENGINE;
 public class Window {
     private static final PebbleTemplate FILTER = ENGINE.getTemplate("expr/chain/window.peb");
 
+    /**
+     * State variable of the {@link TimeWindow} of a time window.
+     */
+    private static final String TIME_WINDOW = "chainTimeWindow";
+
     /**
      * Translates a window expression ASTNode into its string representation.
      *
@@ -54,6 +61,7 @@ public class Window {
                 String unit = astNode.getChildren(0).getChildren(1).getLabel();
                 long ms = TranslateUtil.toMs(Long.parseLong(number), unit);
                 context.put("windowTime", ms);
+                env.put(TIME_WINDOW, new TimeWindow(ms));
                 env.rawPut("nextChainData",null);
                 env.rawPut("hasNextChainData",false);
             } else {
@@ -64,6 +72,7 @@ public class Window {
                 context.put("windowLength", Integer.parseInt(number));
             }
             context.put("funcName", name);
+            context.put("stats", ChainExpr.hasSlidingStats(env));
             FILTER.evaluate(writer, context);
             return writer.toString();
         } catch (TranslatorException | IOException e) {
@@ -0,0 +1,67 @@
+package io.github.mfinnnne.rhythmix.udf;
+
+import io.github.mfinnnne.rhythmix.lib.NumericColumns;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+
+import java.util.List;
+
+/**
+ * Calculator UDF reading the window as primitive arrays.
+ * <p>
+ * A plain {@link ChainCalculatorUDF} receives the window as events and parses each value. A
+ * batch calculator receives the values and the timestamps of the window in a {@code double[]}
+ * and a {@code long[]}: a chain whose filter is built in keeps them in primitive columns and
+ * copies them over without creating an event or parsing a value, so the calculator is a plain
+ * array scan. Events whose value is not a number are skipped.
+ * <p>
+ * The arrays are reused by the next call and hold stale data outside {@code [from, to)}; the
+ * calculator must neither keep nor modify them.
+ * <p>
+ * Implementation example:
+ * <pre>{@code
+ * public class SumCalculator implements BatchChainCalculatorUDF {
+ *     public String getName() {
+ *         return "mySum";
+ *     }
+ *
+ *     public Number calculate(double[] values, long[] ts, int from, int to) {
+ *         double sum = 0;
+ *         for (int i = from; i < to; i++) {
+ *             sum += values[i];
+ *         }
+ *         return sum;
+ *     }
+ * }
+ * }</pre>
+ *
+ * author MFine
+ * version 1.0
+ */
+public interface BatchChainCalculatorUDF extends ChainCalculatorUDF {
+
+    /**
+     * Calculates the result of the window.
+     *
+     * @param values the values of the events
+     * @param ts     the timestamps of the events, in milliseconds
+     * @param from   the index of the first event of the window
+     * @param to     the index after the last event of the window
+     * @return the result, or {@code null} if there is none
+     */
+    Number calculate(double[] values, long[] ts, int from, int to);
+
+    /**
+     * Copies the window into new arrays and calculates its result.
+     *
+     * @param values the events of the window, {@code null} for none
+     * @return the result
+     */
+    @Override
+    default Number calculate(List<RhythmixEventData> values) {
+        NumericColumns columns = new NumericColumns();
+        if (values != null) {
+            columns.fill(values);
+        }
+        return calculate(columns.values(), columns.times(), 0, columns.size());
+    }
+}
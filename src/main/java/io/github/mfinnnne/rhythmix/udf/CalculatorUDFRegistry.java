@@ -11,7 +11,7 @@ import java.util.Set;
 /**
  * CalculatorUDF Registry with auto-discovery and registration capabilities.
  * <p>
- * This class automatically scans the classpath for CalculatorUDF implementations,
+ * This class automatically discovers CalculatorUDF implementations, see {@link UDFRegistry},
  * instantiates them, and registers them with AviatorScript using the
  * addInstanceFunctions mechanism for global availability.
  * <p>
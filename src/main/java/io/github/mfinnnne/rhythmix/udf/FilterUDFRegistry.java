@@ -9,7 +9,7 @@ import java.util.Set;
 /**
  * FilterUDF Registry with auto-discovery and registration capabilities.
  * <p>
- * This class automatically scans the classpath for FilterUDF implementations,
+ * This class automatically discovers FilterUDF implementations, see {@link UDFRegistry},
  * instantiates them, and registers them with AviatorScript using the
  * addInstanceFunctions mechanism for global availability.
  * <p>
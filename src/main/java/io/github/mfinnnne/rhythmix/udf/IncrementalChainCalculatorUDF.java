@@ -0,0 +1,103 @@
+package io.github.mfinnnne.rhythmix.udf;
+
+import io.github.mfinnnne.rhythmix.lib.EventUtil;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+
+import java.util.List;
+
+/**
+ * Calculator UDF kept up to date as events enter and leave the window.
+ * <p>
+ * A plain {@link ChainCalculatorUDF} receives the whole window on every event. An incremental
+ * calculator keeps an accumulator instead: behind a count window or a limit, each event entering
+ * the window is {@link #add added} and each event leaving it is {@link #remove removed}, in the
+ * order they entered, and {@link #result} is read in constant time. Elsewhere (time windows,
+ * take, filter UDFs) the engine falls back to {@link #calculate(List)}, which folds the window
+ * into a fresh accumulator.
+ * <p>
+ * The UDF instance is shared by every rule using it, so the running state lives in the
+ * accumulator created by {@link #init()}, one per rule state. Events whose value is not a number
+ * are skipped.
+ * <p>
+ * Implementation example:
+ * <pre>{@code
+ * public class SumCalculator implements IncrementalChainCalculatorUDF<double[]> {
+ *     public String getName() {
+ *         return "mySum";
+ *     }
+ *
+ *     public double[] init() {
+ *         return new double[1];
+ *     }
+ *
+ *     public void add(double[] sum, long ts, double value) {
+ *         sum[0] += value;
+ *     }
+ *
+ *     public void remove(double[] sum, long ts, double value) {
+ *         sum[0] -= value;
+ *     }
+ *
+ *     public Number result(double[] sum) {
+ *         return sum[0];
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param <A> the type of the accumulator
+ * author MFine
+ * version 1.0
+ */
+public interface IncrementalChainCalculatorUDF<A> extends ChainCalculatorUDF {
+
+    /**
+     * Creates an empty accumulator.
+     *
+     * @return the accumulator
+     */
+    A init();
+
+    /**
+     * Adds an event entering the window.
+     *
+     * @param accumulator the accumulator
+     * @param ts          the timestamp of the event, in milliseconds
+     * @param value       the value of the event
+     */
+    void add(A accumulator, long ts, double value);
+
+    /**
+     * Removes an event leaving the window, the oldest one added.
+     *
+     * @param accumulator the accumulator
+     * @param ts          the timestamp of the event, in milliseconds
+     * @param value       the value of the event
+     */
+    void remove(A accumulator, long ts, double value);
+
+    /**
+     * Gets the result of the window.
+     *
+     * @param accumulator the accumulator
+     * @return the result, or {@code null} if there is none
+     */
+    Number result(A accumulator);
+
+    /**
+     * Folds the window into a new accumulator.
+     *
+     * @param values the events of the window
+     * @return the result
+     */
+    @Override
+    default Number calculate(List<RhythmixEventData> values) {
+        A accumulator = init();
+        for (RhythmixEventData event : values) {
+            Number number = EventUtil.number(event);
+            if (number != null) {
+                add(accumulator, EventUtil.time(event), number.doubleValue());
+            }
+        }
+        return result(accumulator);
+    }
+}
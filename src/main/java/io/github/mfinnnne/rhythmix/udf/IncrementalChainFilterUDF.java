@@ -0,0 +1,46 @@
+package io.github.mfinnnne.rhythmix.udf;
+
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+
+import java.util.List;
+
+/**
+ * Filter UDF told about each accepted event instead of re-filtering the whole queue.
+ * <p>
+ * A plain {@link ChainFilterUDF} rewrites the queue with {@link #filter(List)} every time an
+ * event is accepted, which copies every retained event. An incremental filter UDF is called
+ * once per accepted event, after the event was appended, and answers how many of the oldest
+ * events to evict; the engine polls them from the queue, which keeps its identity. The cost
+ * of the filter is then proportional to the events it evicts, not to the queue length.
+ * <p>
+ * Because the queue is kept rather than rebuilt, it survives a match like the queue of a
+ * built-in filter, and {@link #filter(List)} is not called.
+ * <p>
+ * Implementation example, keeping the last 3 events:
+ * <pre>{@code
+ * public class LastThreeFilter implements IncrementalChainFilterUDF {
+ *     public String getName() {
+ *         return "lastThree";
+ *     }
+ *
+ *     public int onAppend(RhythmixEventData event, List<RhythmixEventData> queue) {
+ *         return Math.max(0, queue.size() - 3);
+ *     }
+ * }
+ * }</pre>
+ *
+ * author MFine
+ * version 1.0
+ */
+public interface IncrementalChainFilterUDF extends ChainFilterUDF {
+
+    /**
+     * Called after an event accepted by {@link #filter(RhythmixEventData)} was appended to the
+     * queue.
+     *
+     * @param event the appended event
+     * @param queue a read-only view of the queue, whose last element is {@code event}
+     * @return the number of events to evict from the head of the queue, from 0 to its size
+     */
+    int onAppend(RhythmixEventData event, List<RhythmixEventData> queue);
+}
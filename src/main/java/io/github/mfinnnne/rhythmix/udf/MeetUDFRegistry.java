@@ -9,7 +9,7 @@ import java.util.Set;
 /**
  * MeetUDF Registry with auto-discovery and registration capabilities.
  * <p>
- * This class automatically scans the classpath for MeetUDF implementations,
+ * This class automatically discovers MeetUDF implementations, see {@link UDFRegistry},
  * instantiates them, and registers them with AviatorScript using the
  * addInstanceFunctions mechanism for global availability.
  * <p>
@@ -0,0 +1,33 @@
+package io.github.mfinnnne.rhythmix.udf;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UDF class to be registered automatically.
+ * <p>
+ * With rhythmix on the annotation processor path, compiling the class adds it to
+ * {@code META-INF/services/} under each UDF interface it implements ({@link ChainFilterUDF},
+ * {@link ChainCalculatorUDF}, {@link ChainMeetUDF}), and the registries load it with
+ * {@link java.util.ServiceLoader} at startup instead of scanning the classpath. The class must be
+ * public, top level or static nested, with a public no-argument constructor.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * @RhythmixUDF
+ * public class ThresholdMeetUDF implements ChainMeetUDF {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * author MFine
+ * version 1.0
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface RhythmixUDF {
+}
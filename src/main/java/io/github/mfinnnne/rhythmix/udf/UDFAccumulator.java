@@ -0,0 +1,65 @@
+package io.github.mfinnnne.rhythmix.udf;
+
+import io.github.mfinnnne.rhythmix.lib.EventUtil;
+import io.github.mfinnnne.rhythmix.lib.WindowAccumulator;
+
+/**
+ * {@link WindowAccumulator} driving an {@link IncrementalChainCalculatorUDF}: one accumulator of
+ * the UDF, kept as a state of a rule.
+ *
+ * @param <A> the type of the accumulator of the UDF
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class UDFAccumulator<A> implements WindowAccumulator {
+
+    private final IncrementalChainCalculatorUDF<A> udf;
+
+    private A accumulator;
+
+    /**
+     * Creates an empty accumulator of a UDF.
+     *
+     * @param udf the UDF
+     */
+    public UDFAccumulator(IncrementalChainCalculatorUDF<A> udf) {
+        this.udf = udf;
+        this.accumulator = udf.init();
+    }
+
+    @Override
+    public void add(Object event) {
+        Number number = EventUtil.number(event);
+        if (number != null) {
+            this.udf.add(this.accumulator, EventUtil.time(event), number.doubleValue());
+        }
+    }
+
+    @Override
+    public void remove(Object event) {
+        Number number = EventUtil.number(event);
+        if (number != null) {
+            this.udf.remove(this.accumulator, EventUtil.time(event), number.doubleValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.accumulator = this.udf.init();
+    }
+
+    @Override
+    public UDFAccumulator<A> emptyCopy() {
+        return new UDFAccumulator<>(this.udf);
+    }
+
+    /**
+     * Gets the result of the UDF for the events added and not removed.
+     *
+     * @return the result
+     */
+    public Number result() {
+        return this.udf.result(this.accumulator);
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.mfinnnne.rhythmix.udf;
+
+import com.googlecode.aviator.runtime.function.AbstractFunction;
+import com.googlecode.aviator.runtime.function.FunctionUtils;
+import com.googlecode.aviator.runtime.type.AviatorBoolean;
+import com.googlecode.aviator.runtime.type.AviatorLong;
+import com.googlecode.aviator.runtime.type.AviatorObject;
+import io.github.mfinnnne.rhythmix.lib.ChainQueue;
+import io.github.mfinnnne.rhythmix.lib.NumericColumns;
+import io.github.mfinnnne.rhythmix.translate.EnvProxy;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aviator functions calling one UDF instance directly.
+ * <p>
+ * The translator resolves the UDF of a call site once, wraps it in one of these adapters and
+ * binds the adapter into the environment of the rule under {@link #name(String, String)}. The
+ * generated code calls the adapter like a lambda, e.g. {@code udf_filter_numericFilter(event)}:
+ * each event costs one interface call on the UDF, without looking it up in the UDF maps and
+ * without the reflective instance functions of Aviator.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public final class UDFFunctions {
+
+    private UDFFunctions() {
+    }
+
+    /**
+     * Gets the variable an adapter is bound to.
+     *
+     * @param kind    the method called: {@code filter}, {@code append}, {@code calculate} or
+     *                {@code meet}
+     * @param udfName the name of the UDF
+     * @return the variable name
+     */
+    public static String name(String kind, String udfName) {
+        return "udf_" + kind + "_" + udfName;
+    }
+
+    /**
+     * Binds the adapter of a filter UDF.
+     *
+     * @param env the environment of the rule
+     * @param udf the UDF
+     * @return the variable the adapter is bound to
+     */
+    public static String bind(EnvProxy env, ChainFilterUDF udf) {
+        return bind(env, new FilterFunction(name("filter", udf.getName()), udf));
+    }
+
+    /**
+     * Binds the adapter appending an accepted event for an incremental filter UDF.
+     *
+     * @param env the environment of the rule
+     * @param udf the UDF
+     * @return the variable the adapter is bound to
+     */
+    public static String bindAppend(EnvProxy env, IncrementalChainFilterUDF udf) {
+        return bind(env, new AppendFunction(name("append", udf.getName()), udf));
+    }
+
+    /**
+     * Binds the adapter of a calculator UDF.
+     *
+     * @param env the environment of the rule
+     * @param udf the UDF
+     * @return the variable the adapter is bound to
+     */
+    public static String bind(EnvProxy env, ChainCalculatorUDF udf) {
+        return bind(env, new CalculatorFunction(name("calculate", udf.getName()), udf));
+    }
+
+    /**
+     * Binds the adapter of a meet UDF.
+     *
+     * @param env the environment of the rule
+     * @param udf the UDF
+     * @return the variable the adapter is bound to
+     */
+    public static String bind(EnvProxy env, ChainMeetUDF udf) {
+        return bind(env, new MeetFunction(name("meet", udf.getName()), udf));
+    }
+
+    private static String bind(EnvProxy env, AbstractFunction function) {
+        env.rawPut(function.getName(), function);
+        return function.getName();
+    }
+
+    /**
+     * Calls {@link ChainFilterUDF#filter(RhythmixEventData)} with an event, or
+     * {@link ChainFilterUDF#filter(List)} with a queue.
+     */
+    private static final class FilterFunction extends AbstractFunction {
+
+        private final String name;
+
+        private final ChainFilterUDF udf;
+
+        private FilterFunction(String name, ChainFilterUDF udf) {
+            this.name = name;
+            this.udf = udf;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public AviatorObject call(Map<String, Object> env, AviatorObject arg) {
+            Object value = arg.getValue(env);
+            if (value instanceof List) {
+                return FunctionUtils.wrapReturn(this.udf.filter((List<RhythmixEventData>) value));
+            }
+            return AviatorBoolean.valueOf(this.udf.filter((RhythmixEventData) value));
+        }
+    }
+
+    /**
+     * Calls {@link IncrementalChainFilterUDF#onAppend} once the event is in the queue, and
+     * polls the evicted events.
+     */
+    private static final class AppendFunction extends AbstractFunction {
+
+        private final String name;
+
+        private final IncrementalChainFilterUDF udf;
+
+        private AppendFunction(String name, IncrementalChainFilterUDF udf) {
+            this.name = name;
+            this.udf = udf;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public AviatorObject call(Map<String, Object> env, AviatorObject arg1, AviatorObject arg2) {
+            RhythmixEventData event = (RhythmixEventData) arg1.getValue(env);
+            ChainQueue queue = (ChainQueue) arg2.getValue(env);
+            int evictions = this.udf.onAppend(event, Collections.unmodifiableList((List<RhythmixEventData>) (List<?>) queue));
+            if (evictions < 0 || evictions > queue.size()) {
+                throw new IllegalStateException(this.udf.getName() + " evicts " + evictions + " of " + queue.size() + " events");
+            }
+            for (int i = 0; i < evictions; i++) {
+                queue.poll();
+            }
+            return AviatorLong.valueOf(evictions);
+        }
+    }
+
+    /**
+     * Calls {@link ChainCalculatorUDF#calculate(List)}, or reads the result of the
+     * {@link UDFAccumulator} of an incremental calculator. Given the {@link NumericColumns} of
+     * the rule, it copies the window into them for a {@link BatchChainCalculatorUDF}.
+     */
+    private static final class CalculatorFunction extends AbstractFunction {
+
+        private final String name;
+
+        private final ChainCalculatorUDF udf;
+
+        private CalculatorFunction(String name, ChainCalculatorUDF udf) {
+            this.name = name;
+            this.udf = udf;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public AviatorObject call(Map<String, Object> env, AviatorObject arg) {
+            Object value = arg.getValue(env);
+            if (value instanceof UDFAccumulator) {
+                return FunctionUtils.wrapReturn(((UDFAccumulator<?>) value).result());
+            }
+            return FunctionUtils.wrapReturn(this.udf.calculate((List<RhythmixEventData>) value));
+        }
+
+        @Override
+        public AviatorObject call(Map<String, Object> env, AviatorObject arg1, AviatorObject arg2) {
+            NumericColumns columns = (NumericColumns) arg2.getValue(env);
+            columns.fill((List<?>) arg1.getValue(env));
+            return FunctionUtils.wrapReturn(((BatchChainCalculatorUDF) this.udf).calculate(columns.values(), columns.times(), 0, columns.size()));
+        }
+    }
+
+    /**
+     * Calls {@link ChainMeetUDF#meet(Number)}.
+     */
+    private static final class MeetFunction extends AbstractFunction {
+
+        private final String name;
+
+        private final ChainMeetUDF udf;
+
+        private MeetFunction(String name, ChainMeetUDF udf) {
+            this.name = name;
+            this.udf = udf;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public AviatorObject call(Map<String, Object> env, AviatorObject arg) {
+            return AviatorBoolean.valueOf(this.udf.meet((Number) arg.getValue(env)));
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package io.github.mfinnnne.rhythmix.udf;
 
 import cn.hutool.core.util.ClassUtil;
-import com.googlecode.aviator.AviatorEvaluator;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Generic UDF Registry with auto-discovery and registration capabilities.
  * <p>
- * This class provides a generic framework for automatically scanning the classpath
- * for UDF implementations, instantiating them, and registering them with AviatorScript.
+ * This class provides a generic framework for automatically discovering UDF
+ * implementations, instantiating them, and registering them with AviatorScript. UDF classes
+ * are listed at build time by {@link RhythmixUDF}; scanning the classpath is opt-in, see
+ * {@link #SCAN_PROPERTY}.
  * It supports any UDF interface type through generics.
  *
  * @param <T> The UDF interface type (e.g., FilterUDF, CalculatorUDF)
@@ -24,6 +29,13 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class UDFRegistry<T> {
 
+    /**
+     * System property listing the packages to scan for UDF classes besides the indexed ones,
+     * separated by commas; an empty value scans the whole classpath. Unset by default, as scanning
+     * reads every class of every jar.
+     */
+    public static final String SCAN_PROPERTY = "rhythmix.udf.scan";
+
     /**
      * Thread-safe map to store registered UDF instances by name
      * -- GETTER --
@@ -74,8 +86,11 @@ public class UDFRegistry<T> {
 
     /**
      * Performs auto-discovery and registration of all UDF implementations
-     * found in the classpath. This method is thread-safe and will only execute
-     * the discovery process once.
+     * listed in the {@code META-INF/services/} files of the classpath, as written by
+     * {@link io.github.mfinnnne.rhythmix.udf.processor.UDFIndexProcessor} for the classes annotated
+     * with {@link RhythmixUDF}, and of those found by scanning the packages of the
+     * {@value #SCAN_PROPERTY} system property, if set. This method is thread-safe and will only
+     * execute the discovery process once.
      */
     public void autoImportUDFs() {
         if (autoImportCompleted) {
@@ -89,63 +104,49 @@ public class UDFRegistry<T> {
 
             log.info("Starting auto-discovery of {} implementations...", displayName);
 
+            int successCount = 0;
+            int failureCount = 0;
             try {
-                // Scan the entire classpath for UDF implementations
-                Set<Class<?>> udfClasses = ClassUtil.scanPackageBySuper("", udfInterface);
-
-                int successCount = 0;
-                int failureCount = 0;
-
-                for (Class<?> clazz : udfClasses) {
+                Set<Class<?>> loaded = new HashSet<>();
+                Iterator<T> services = ServiceLoader.load(udfInterface).iterator();
+                while (true) {
+                    T udf;
                     try {
-                        // Skip interfaces and abstract classes
-                        if (clazz.isInterface() || java.lang.reflect.Modifier.isAbstract(clazz.getModifiers())) {
-                            continue;
+                        if (!services.hasNext()) {
+                            break;
                         }
-
-                        // Attempt to instantiate the UDF
-                        @SuppressWarnings("unchecked")
-                        T udf = (T) clazz.getDeclaredConstructor().newInstance();
-                        String udfName = getUDFName(udf);
-
-                        // Check for duplicate names
-                        if (registeredUDFs.containsKey(udfName)) {
-                            log.warn("Duplicate {} name '{}' found in class {}. Skipping registration.",
-                                    displayName, udfName, clazz.getName());
-                            failureCount++;
-                            continue;
-                        }
-
-                        // Register with AviatorScript using addInstanceFunctions
-                        AviatorEvaluator.addInstanceFunctions(udfName, clazz);
-                        // Store in our registry for tracking
-                        registeredUDFs.put(udfName, udf);
-                        log.info("Successfully registered {}: {} (class: {})", displayName, udfName, clazz.getName());
-                        successCount++;
-
-                    } catch (InstantiationException e) {
-                        log.warn("Failed to instantiate {} class {}: No default constructor available",
-                                displayName, clazz.getName());
+                        udf = services.next();
+                    } catch (ServiceConfigurationError e) {
+                        log.warn("Failed to load {}: {}", displayName, e.getMessage());
                         failureCount++;
-                    } catch (IllegalAccessException e) {
-                        log.warn("Failed to instantiate {} class {}: Constructor not accessible",
-                                displayName, clazz.getName());
-                        failureCount++;
-                    } catch (InvocationTargetException e) {
-                        log.warn("Failed to instantiate {} class {}: Constructor threw exception: {}",
-                                displayName, clazz.getName(), e.getCause().getMessage());
-                        failureCount++;
-                    } catch (NoSuchMethodException e) {
-                        log.warn("Failed to instantiate {} class {}: No default constructor found",
-                                displayName, clazz.getName());
-                        failureCount++;
-                    } catch (Exception e) {
-                        log.error("Unexpected error while registering {} class {}: {}",
-                                displayName, clazz.getName(), e.getMessage(), e);
+                        continue;
+                    }
+                    loaded.add(udf.getClass());
+                    if (register(udf)) {
+                        successCount++;
+                    } else {
                         failureCount++;
                     }
                 }
 
+                String packages = System.getProperty(SCAN_PROPERTY);
+                if (packages != null) {
+                    for (String packageName : packages.split(",")) {
+                        for (Class<?> clazz : ClassUtil.scanPackageBySuper(packageName.trim(), udfInterface)) {
+                            // Skip interfaces, abstract classes and the UDFs already indexed
+                            if (clazz.isInterface() || java.lang.reflect.Modifier.isAbstract(clazz.getModifiers())
+                                    || !loaded.add(clazz)) {
+                                continue;
+                            }
+                            if (scanned(clazz)) {
+                                successCount++;
+                            } else {
+                                failureCount++;
+                            }
+                        }
+                    }
+                }
+
                 log.info("{} auto-discovery completed. Successfully registered: {}, Failed: {}",
                         displayName, successCount, failureCount);
 
@@ -157,6 +158,57 @@ public class UDFRegistry<T> {
         }
     }
 
+    /**
+     * Instantiates and registers a class found by scanning the classpath.
+     *
+     * @param clazz the class
+     * @return whether it was registered
+     */
+    private boolean scanned(Class<?> clazz) {
+        try {
+            // Attempt to instantiate the UDF
+            @SuppressWarnings("unchecked")
+            T udf = (T) clazz.getDeclaredConstructor().newInstance();
+            return register(udf);
+
+        } catch (InstantiationException e) {
+            log.warn("Failed to instantiate {} class {}: No default constructor available",
+                    displayName, clazz.getName());
+        } catch (IllegalAccessException e) {
+            log.warn("Failed to instantiate {} class {}: Constructor not accessible",
+                    displayName, clazz.getName());
+        } catch (InvocationTargetException e) {
+            log.warn("Failed to instantiate {} class {}: Constructor threw exception: {}",
+                    displayName, clazz.getName(), e.getCause().getMessage());
+        } catch (NoSuchMethodException e) {
+            log.warn("Failed to instantiate {} class {}: No default constructor found",
+                    displayName, clazz.getName());
+        } catch (Exception e) {
+            log.error("Unexpected error while registering {} class {}: {}",
+                    displayName, clazz.getName(), e.getMessage(), e);
+        }
+        return false;
+    }
+
+    /**
+     * Registers a discovered UDF unless its name is taken.
+     */
+    private boolean register(T udf) {
+        String udfName = getUDFName(udf);
+
+        // Check for duplicate names
+        if (registeredUDFs.containsKey(udfName)) {
+            log.warn("Duplicate {} name '{}' found in class {}. Skipping registration.",
+                    displayName, udfName, udf.getClass().getName());
+            return false;
+        }
+
+        // Store in our registry, runtimes bind its instance functions on first call
+        registeredUDFs.put(udfName, udf);
+        log.info("Successfully registered {}: {} (class: {})", displayName, udfName, udf.getClass().getName());
+        return true;
+    }
+
     /**
      * Manually register a UDF instance. This can be used alongside
      * auto-discovery for additional UDFs that need manual registration.
@@ -182,10 +234,7 @@ public class UDFRegistry<T> {
         }
 
         try {
-            // Register with AviatorScript
-            AviatorEvaluator.addInstanceFunctions(udfName, udf.getClass());
-
-            // Store in our registry
+            // Store in our registry, runtimes bind its instance functions on first call
             registeredUDFs.put(udfName, udf);
 
             log.info("Manually registered {}: {} (class: {})", displayName, udfName, udf.getClass().getName());
@@ -1,9 +1,6 @@
 package io.github.mfinnnne.rhythmix.udf.builtin.calculator;
 
-import io.github.mfinnnne.rhythmix.udf.ChainCalculatorUDF;
-import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
-
-import java.util.List;
+import io.github.mfinnnne.rhythmix.udf.BatchChainCalculatorUDF;
 
 /**
  * <p>MaxChainCalculator class.</p>
@@ -11,7 +8,7 @@ import java.util.List;
  * author MFine
  * version $Id: $Id
  */
-public class MaxChainCalculator implements ChainCalculatorUDF {
+public class MaxChainCalculator implements BatchChainCalculatorUDF {
     /** {@inheritDoc} */
     @Override
     public String getName() {
@@ -20,36 +17,16 @@ public class MaxChainCalculator implements ChainCalculatorUDF {
 
     /** {@inheritDoc} */
     @Override
-    public Number calculate(List<RhythmixEventData> values) {
-        if (values == null || values.isEmpty()) {
-            return 0;
-        }
-
+    public Number calculate(double[] values, long[] ts, int from, int to) {
         double max = Double.NEGATIVE_INFINITY;
         boolean hasValidNumber = false;
-
-        for (RhythmixEventData rhythmixEventData : values) {
-            if (rhythmixEventData == null) {
-                continue;
-            }
-            Object value = rhythmixEventData.getValue();
-            if (value == null) {
-                continue;
-            }
-
-            try {
-                double num;
-                num = Double.parseDouble(value.toString());
-                if (Double.isNaN(num)) {
-                    continue;
-                }
-                if (num > max) {
-                    max = num;
-                }
-                hasValidNumber = true;
-
-            } catch (NumberFormatException ignored) {
+        for (int i = from; i < to; i++) {
+            double num = values[i];
+            // NaN never compares, skipped like a missing value
+            if (num > max) {
+                max = num;
             }
+            hasValidNumber |= !Double.isNaN(num);
         }
 
         if (!hasValidNumber) {
@@ -1,9 +1,6 @@
 package io.github.mfinnnne.rhythmix.udf.builtin.calculator;
 
-import io.github.mfinnnne.rhythmix.udf.ChainCalculatorUDF;
-import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
-
-import java.util.List;
+import io.github.mfinnnne.rhythmix.udf.BatchChainCalculatorUDF;
 
 /**
  * <p>MinChainCalculator class.</p>
@@ -11,7 +8,7 @@ import java.util.List;
  * author MFine
  * version $Id: $Id
  */
-public class MinChainCalculator implements ChainCalculatorUDF {
+public class MinChainCalculator implements BatchChainCalculatorUDF {
     /** {@inheritDoc} */
     @Override
     public String getName() {
@@ -20,59 +17,21 @@ public class MinChainCalculator implements ChainCalculatorUDF {
 
     /** {@inheritDoc} */
     @Override
-    public Number calculate(List<RhythmixEventData> values) {
-        // Handle null or empty input
-        if (values == null || values.isEmpty()) {
-            return 0;
-        }
-
+    public Number calculate(double[] values, long[] ts, int from, int to) {
         double min = Double.POSITIVE_INFINITY;
         boolean hasValidNumber = false;
-
-        // Iterate through all EventData objects
-        for (RhythmixEventData rhythmixEventData : values) {
-            if (rhythmixEventData == null) {
-                continue;
-            }
-
-            // Get the numeric value from EventData
-            Object value = rhythmixEventData.getValue();
-            if (value == null) {
-                continue;
-            }
-
-            try {
-                double num;
-                if (value instanceof Number) {
-                    num = ((Number) value).doubleValue();
-                } else {
-                    // Try to parse string representation as number
-                    num = Double.parseDouble(value.toString());
-                }
-
-                // Skip NaN values
-                if (Double.isNaN(num)) {
-                    continue;
-                }
-
-                // Update minimum value
-                if (num < min) {
-                    min = num;
-                }
-                hasValidNumber = true;
-
-            } catch (NumberFormatException e) {
-                // Skip non-numeric values
-                continue;
+        for (int i = from; i < to; i++) {
+            double num = values[i];
+            // NaN never compares, skipped like a missing value
+            if (num < min) {
+                min = num;
             }
+            hasValidNumber |= !Double.isNaN(num);
         }
 
-        // Return 0 if no valid numbers were found
         if (!hasValidNumber) {
             return 0;
         }
-
-        // Return as integer if it's a whole number, otherwise as double
         if (min == Math.floor(min) && !Double.isInfinite(min)) {
             return (long) min;
         } else {
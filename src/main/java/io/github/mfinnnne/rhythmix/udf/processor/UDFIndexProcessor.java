@@ -0,0 +1,133 @@
+package io.github.mfinnnne.rhythmix.udf.processor;
+
+import io.github.mfinnnne.rhythmix.udf.ChainCalculatorUDF;
+import io.github.mfinnnne.rhythmix.udf.ChainFilterUDF;
+import io.github.mfinnnne.rhythmix.udf.ChainMeetUDF;
+import io.github.mfinnnne.rhythmix.udf.RhythmixUDF;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor writing the {@code META-INF/services/} files of the classes annotated
+ * with {@link RhythmixUDF}, one per UDF interface.
+ * <p>
+ * Entries already in the output directory are kept, so compiling only some of the classes, as
+ * incremental builds do, does not drop the others. A stale entry whose class was deleted is
+ * logged and skipped by the registries.
+ *
+ * author MFine
+ * version 1.0
+ */
+@SupportedAnnotationTypes("io.github.mfinnnne.rhythmix.udf.RhythmixUDF")
+public class UDFIndexProcessor extends AbstractProcessor {
+
+    private static final Class<?>[] UDF_INTERFACES = {ChainFilterUDF.class, ChainCalculatorUDF.class, ChainMeetUDF.class};
+
+    /**
+     * Binary names of the annotated classes, by service file.
+     */
+    private final Map<String, Set<String>> services = new LinkedHashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            write();
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(RhythmixUDF.class)) {
+            if (check(element)) {
+                index((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private boolean check(Element element) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (element.getKind() != ElementKind.CLASS || !modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)) {
+            return error(element, "@RhythmixUDF must be on a public concrete class");
+        }
+        if (((TypeElement) element).getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+            return error(element, "@RhythmixUDF must be on a top level or static nested class");
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return error(element, "@RhythmixUDF class needs a public no-argument constructor");
+    }
+
+    private void index(TypeElement element) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(element).toString();
+        TypeMirror type = processingEnv.getTypeUtils().erasure(element.asType());
+        boolean indexed = false;
+        for (Class<?> udfInterface : UDF_INTERFACES) {
+            TypeElement interfaceElement = processingEnv.getElementUtils().getTypeElement(udfInterface.getName());
+            if (processingEnv.getTypeUtils().isAssignable(type, processingEnv.getTypeUtils().erasure(interfaceElement.asType()))) {
+                services.computeIfAbsent(udfInterface.getName(), k -> new TreeSet<>()).add(binaryName);
+                indexed = true;
+            }
+        }
+        if (!indexed) {
+            error(element, "@RhythmixUDF class implements no UDF interface");
+        }
+    }
+
+    private void write() {
+        for (Map.Entry<String, Set<String>> service : services.entrySet()) {
+            String path = "META-INF/services/" + service.getKey();
+            Set<String> classes = new TreeSet<>(service.getValue());
+            try {
+                FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
+                try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                    reader.lines().map(String::trim).filter(line -> !line.isEmpty() && !line.startsWith("#")).forEach(classes::add);
+                }
+            } catch (IOException ignored) {
+                // no file from a previous compilation
+            }
+            try {
+                FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
+                try (Writer writer = file.openWriter()) {
+                    for (String name : classes) {
+                        writer.write(name);
+                        writer.write('\n');
+                    }
+                }
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+}
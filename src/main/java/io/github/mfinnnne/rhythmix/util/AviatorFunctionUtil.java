@@ -1,9 +1,9 @@
 package io.github.mfinnnne.rhythmix.util;
 
-import cn.hutool.crypto.digest.DigestUtil;
 import com.googlecode.aviator.AviatorEvaluator;
 import com.googlecode.aviator.Expression;
 import com.googlecode.aviator.runtime.type.AviatorFunction;
+import io.github.mfinnnne.rhythmix.execute.ExpressionCache;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -74,16 +74,12 @@ public class AviatorFunctionUtil {
     }
 
     /**
-     * <p>getExpr.</p>
+     * Gets the compiled expression of a translated code from the {@link ExpressionCache}.
      *
      * @param code a {@link java.lang.String} object.
      * @return a {@link com.googlecode.aviator.Expression} object.
      */
     public  static Expression getExpr(String code){
-        Expression expr = AviatorEvaluator.getInstance().getCachedExpression(DigestUtil.md5Hex(code));
-        if (expr==null) {
-            expr = AviatorEvaluator.getInstance().compile(DigestUtil.md5Hex(code), code, true);
-        }
-        return expr;
+        return ExpressionCache.getInstance().get(code);
     }
 }
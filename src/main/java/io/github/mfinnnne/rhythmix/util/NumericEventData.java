@@ -0,0 +1,64 @@
+package io.github.mfinnnne.rhythmix.util;
+
+import cn.hutool.core.util.IdUtil;
+
+import java.sql.Timestamp;
+
+/**
+ * An event created directly from a number.
+ * <p>
+ * The numeric value is used as is by comparisons and calculators, without formatting and
+ * parsing it back; {@link #getValue()} formats it only when the string is asked for.
+ *
+ * @author MFine
+ * @version 1.0
+ * @since 1.0
+ */
+public class NumericEventData extends RhythmixEventData {
+
+    /**
+     * Creates an event with a floating point value.
+     *
+     * @param id    the event id
+     * @param name  the event name
+     * @param value the value
+     * @param ts    the event timestamp
+     */
+    public NumericEventData(String id, String name, double value, Timestamp ts) {
+        super(id, name, value, ts);
+    }
+
+    /**
+     * Creates an event with an integral value.
+     *
+     * @param id    the event id
+     * @param name  the event name
+     * @param value the value
+     * @param ts    the event timestamp
+     */
+    public NumericEventData(String id, String name, long value, Timestamp ts) {
+        super(id, name, value, ts);
+    }
+
+    /**
+     * Creates an event with a floating point value and a generated id.
+     *
+     * @param name  the event name
+     * @param value the value
+     * @param ts    the event timestamp
+     */
+    public NumericEventData(String name, double value, Timestamp ts) {
+        this(IdUtil.nanoId(), name, value, ts);
+    }
+
+    /**
+     * Creates an event with an integral value and a generated id.
+     *
+     * @param name  the event name
+     * @param value the value
+     * @param ts    the event timestamp
+     */
+    public NumericEventData(String name, long value, Timestamp ts) {
+        this(IdUtil.nanoId(), name, value, ts);
+    }
+}
@@ -1,25 +1,54 @@
 package io.github.mfinnnne.rhythmix.util;
 
 import cn.hutool.core.util.IdUtil;
-import lombok.AllArgsConstructor;
+import io.github.mfinnnne.rhythmix.lib.Coerce;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.sql.Timestamp;
 
 /**
  * <p>RhythmixEventData class.</p>
+ * <p>
+ * The value is kept as a string, its numeric view is parsed once on first use by
+ * {@link #getNumber()} and shared by the comparisons, slopes and calculators that read it.
+ * Events with a numeric value can be created directly with {@link NumericEventData}.
  *
  * author MFine
  * version $Id: $Id
  */
 @NoArgsConstructor
-@AllArgsConstructor
-@Builder
 @Data
 public class RhythmixEventData {
 
+    /**
+     * <p>Constructor for RhythmixEventData.</p>
+     *
+     * @param id a {@link java.lang.String} object.
+     * @param code a {@link java.lang.String} object.
+     * @param serialNumber a {@link java.lang.String} object.
+     * @param name a {@link java.lang.String} object.
+     * @param value a {@link java.lang.String} object.
+     * @param ts a java.sql.Timestamp object.
+     * @param args an array of {@link java.lang.String} objects.
+     */
+    @Builder
+    public RhythmixEventData(String id, String code, String serialNumber, String name, String value, Timestamp ts, String[] args) {
+        this.id = id;
+        this.code = code;
+        this.serialNumber = serialNumber;
+        this.name = name;
+        this.value = value;
+        this.ts = ts;
+        this.args = args;
+    }
+
     /**
      * <p>Constructor for RhythmixEventData.</p>
      *
@@ -58,4 +87,95 @@ public class RhythmixEventData {
 
     //Extended field
     private String[] args;
+
+    /**
+     * Numeric view of {@link #value}, {@code null} if the value is not a number.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient Number number;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private transient boolean parsed;
+
+    /**
+     * Constructor for events created from a number, see {@link NumericEventData}.
+     *
+     * @param id     the event id
+     * @param name   the event name
+     * @param number the numeric value
+     * @param ts     the event timestamp
+     */
+    protected RhythmixEventData(String id, String name, Number number, Timestamp ts) {
+        this.id = id;
+        this.name = name;
+        this.ts = ts;
+        this.number = number;
+        this.parsed = true;
+    }
+
+    /**
+     * Gets the value as a string. For events created from a number the string is
+     * formatted on first use.
+     *
+     * @return the value
+     */
+    public String getValue() {
+        if (this.value == null && this.number != null) {
+            this.value = this.number.toString();
+        }
+        return this.value;
+    }
+
+    /**
+     * Sets the value and drops its parsed numeric view.
+     *
+     * @param value the value
+     */
+    public void setValue(String value) {
+        this.value = value;
+        this.number = null;
+        this.parsed = false;
+    }
+
+    /**
+     * Gets the numeric view of the value, parsed once with the syntax of the comparisons
+     * (see {@link Coerce#parseNumber(String)}).
+     *
+     * @return a {@link Long} or {@link Double}, or {@code null} if the value is not a number
+     */
+    public Number getNumber() {
+        if (!this.parsed) {
+            this.number = this.value == null ? null : Coerce.parseNumber(this.value);
+            this.parsed = true;
+        }
+        return this.number;
+    }
+
+    /**
+     * Gets the value as a double for calculations. Besides the syntax of {@link #getNumber()},
+     * accepts anything {@link Double#parseDouble(String)} does, such as exponents.
+     *
+     * @return the value, or {@code NaN} if it is missing or not a number
+     */
+    public double doubleValue() {
+        Number n = getNumber();
+        if (n != null) {
+            return n.doubleValue();
+        }
+        String str = getValue();
+        if (str == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(str);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package io.github.mfinnnne.rhythmix.benchmark;
+
+import io.github.mfinnnne.rhythmix.exception.ComputeException;
+import io.github.mfinnnne.rhythmix.lexer.Token;
+import io.github.mfinnnne.rhythmix.lib.AviatorMath;
+import io.github.mfinnnne.rhythmix.lib.EventUtil;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code calc} aggregates over a full window, paid once per event by rules such as
+ * {@code window(1000).avg()}.
+ * <p>
+ * Run with {@code java -cp <test classpath> io.github.mfinnnne.rhythmix.benchmark.AviatorMathBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AviatorMathBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private List<Object> window;
+
+    @Setup
+    public void setUp() {
+        window = new ArrayList<>(size);
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            String value = i % 2 == 0 ? String.valueOf(i % 100) : (i % 100) + ".5";
+            window.add(new RhythmixEventData("1", value, new Timestamp(t + i)));
+        }
+    }
+
+    @Benchmark
+    public Number sum() throws ComputeException {
+        return AviatorMath.sum(window);
+    }
+
+    @Benchmark
+    public Number stddev() throws ComputeException {
+        return AviatorMath.stddev(window);
+    }
+
+    /**
+     * The bean-to-map and lexing the aggregates did per element before reading the numeric view.
+     */
+    @Benchmark
+    public List<Token> valueTokens() {
+        return EventUtil.event2ValueToken(window);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AviatorMathBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.mfinnnne.rhythmix.benchmark;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
+import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.lib.EventUtil;
+import io.github.mfinnnne.rhythmix.udf.BatchChainCalculatorUDF;
+import io.github.mfinnnne.rhythmix.udf.ChainCalculatorUDF;
+import io.github.mfinnnne.rhythmix.udf.IncrementalChainCalculatorUDF;
+import io.github.mfinnnne.rhythmix.udf.RhythmixUDF;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of a calculator UDF over a 10k-event window, in the list form, in the batch
+ * form and in the incremental form.
+ * <p>
+ * Run with {@code java -cp <test classpath> io.github.mfinnnne.rhythmix.benchmark.CalculatorUDFBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CalculatorUDFBenchmark {
+
+    private static final int EVENTS = 16384;
+
+    @Param({"filter().window(10000).listSum().meet(<0)", "filter().window(10000).batchSum().meet(<0)", "filter().window(10000).incrementalSum().meet(<0)"})
+    public String code;
+
+    private RhythmixExecutor executor;
+
+    private RhythmixEventData[] events;
+
+    private int index;
+
+    /**
+     * Sum of the window, recomputed from the list.
+     */
+    @RhythmixUDF
+    public static class ListSumCalculator implements ChainCalculatorUDF {
+        @Override
+        public String getName() {
+            return "listSum";
+        }
+
+        @Override
+        public Number calculate(List<RhythmixEventData> values) {
+            double sum = 0;
+            for (RhythmixEventData event : values) {
+                Number number = EventUtil.number(event);
+                if (number != null) {
+                    sum += number.doubleValue();
+                }
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Sum of the window, recomputed from its value column.
+     */
+    @RhythmixUDF
+    public static class BatchSumCalculator implements BatchChainCalculatorUDF {
+        @Override
+        public String getName() {
+            return "batchSum";
+        }
+
+        @Override
+        public Number calculate(double[] values, long[] ts, int from, int to) {
+            double sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += values[i];
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Sum of the window, kept as events enter and leave it.
+     */
+    @RhythmixUDF
+    public static class IncrementalSumCalculator implements IncrementalChainCalculatorUDF<double[]> {
+        @Override
+        public String getName() {
+            return "incrementalSum";
+        }
+
+        @Override
+        public double[] init() {
+            return new double[1];
+        }
+
+        @Override
+        public void add(double[] sum, long ts, double value) {
+            sum[0] += value;
+        }
+
+        @Override
+        public void remove(double[] sum, long ts, double value) {
+            sum[0] -= value;
+        }
+
+        @Override
+        public Number result(double[] sum) {
+            return sum[0];
+        }
+    }
+
+    @Setup
+    public void setUp() throws TranslatorException {
+        executor = RhythmixCompiler.compile(code);
+        events = new RhythmixEventData[EVENTS];
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = new RhythmixEventData("1", String.valueOf(i % 9), new Timestamp(t + i));
+        }
+    }
+
+    @Benchmark
+    public boolean execute() {
+        RhythmixEventData event = events[index];
+        index = (index + 1) & (EVENTS - 1);
+        return executor.execute(event);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CalculatorUDFBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
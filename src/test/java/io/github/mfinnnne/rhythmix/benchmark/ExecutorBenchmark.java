@@ -0,0 +1,73 @@
+package io.github.mfinnnne.rhythmix.benchmark;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
+import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.util.AviatorFunctionUtil;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import com.googlecode.aviator.Expression;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of {@link RhythmixExecutor#execute(Object)} on a chain rule.
+ * <p>
+ * Run with {@code java -cp <test classpath> io.github.mfinnnne.rhythmix.benchmark.ExecutorBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExecutorBenchmark {
+
+    private static final int EVENTS = 4096;
+
+    @Param({"filter((-5,5)).window(100).avg().meet(>1)"})
+    public String code;
+
+    private RhythmixExecutor executor;
+
+    private RhythmixEventData[] events;
+
+    private int index;
+
+    @Setup
+    public void setUp() throws TranslatorException {
+        executor = RhythmixCompiler.compile(code);
+        events = new RhythmixEventData[EVENTS];
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = new RhythmixEventData("1", String.valueOf(i % 9 - 4), new Timestamp(t + i));
+        }
+    }
+
+    @Benchmark
+    public boolean execute() {
+        RhythmixEventData event = events[index];
+        index = (index + 1) & (EVENTS - 1);
+        return executor.execute(event);
+    }
+
+    /**
+     * The per-event lookup the executor did before pinning its expression.
+     */
+    @Benchmark
+    public Expression lookupExpression() {
+        return AviatorFunctionUtil.getExpr(executor.getCode());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ExecutorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
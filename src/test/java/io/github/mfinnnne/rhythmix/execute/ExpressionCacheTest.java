@@ -0,0 +1,91 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import com.googlecode.aviator.Expression;
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link ExpressionCache}
+ */
+class ExpressionCacheTest {
+
+    @Test
+    @DisplayName("Hits return the cached expression and are counted")
+    void testHitAndMiss() {
+        ExpressionCache cache = new ExpressionCache(4, ExpressionCache.EvictionPolicy.LRU);
+        Expression first = cache.get("a + 1");
+        assertSame(first, cache.get("a + 1"));
+        assertNotSame(first, cache.get("a + 2"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+        Map<String, Object> env = new HashMap<>();
+        env.put("a", 1);
+        assertEquals(2L, first.execute(env));
+    }
+
+    @Test
+    @DisplayName("LRU evicts the least recently used expression")
+    void testLruEviction() {
+        ExpressionCache cache = new ExpressionCache(2, ExpressionCache.EvictionPolicy.LRU);
+        Expression a = cache.get("a + 1");
+        cache.get("a + 2");
+        cache.get("a + 1");
+        cache.get("a + 3");
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get("a + 1"));
+        assertEquals(3, cache.getMissCount());
+        cache.get("a + 2");
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("LFU evicts the least frequently used expression")
+    void testLfuEviction() {
+        ExpressionCache cache = new ExpressionCache(2, ExpressionCache.EvictionPolicy.LFU);
+        Expression a = cache.get("a + 1");
+        cache.get("a + 1");
+        cache.get("a + 1");
+        cache.get("a + 2");
+        cache.get("a + 3");
+        cache.get("a + 3");
+        cache.get("a + 4");
+        assertEquals(2, cache.getEvictionCount());
+        long misses = cache.getMissCount();
+        assertSame(a, cache.get("a + 1"));
+        assertEquals(misses, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("Invalidating a rule removes its expression and its classes")
+    void testInvalidate() throws TranslatorException {
+        ExpressionCache cache = new ExpressionCache(8, ExpressionCache.EvictionPolicy.LRU);
+        cache.get("count(>1,2)", "a + 1");
+        cache.get("b + 1");
+        assertTrue(cache.getLoadedClassCount() > 0);
+        assertTrue(cache.invalidate("count(>1,2)"));
+        assertFalse(cache.invalidate("count(>1,2)"));
+        assertTrue(cache.invalidate("b + 1"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getLoadedClassCount());
+
+        String rule = "filter((-5,5)).window(4).avg().meet(>2)";
+        Expression compiled = RhythmixCompiler.compile(rule).getExpression();
+        assertSame(compiled, RhythmixCompiler.compile(rule).getExpression());
+        assertTrue(ExpressionCache.getInstance().invalidate(rule));
+        assertNotSame(compiled, RhythmixCompiler.compile(rule).getExpression());
+    }
+
+    @Test
+    @DisplayName("The maximum size must be positive")
+    void testInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpressionCache(0, ExpressionCache.EvictionPolicy.LRU));
+    }
+}
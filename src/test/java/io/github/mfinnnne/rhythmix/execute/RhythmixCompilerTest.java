@@ -0,0 +1,80 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for concurrent compilation with {@link RhythmixCompiler#compileAll}
+ */
+class RhythmixCompilerTest {
+
+    private static final List<String> RULES = Arrays.asList(
+            "count!(>4,3)",
+            "{>1}->{count(<1,3)}->{==3}",
+            "filter((-5,5)).window(3).sum().meet(>=6)",
+            "filter((-5,5)).limit(5).take(0,2).sum().meet(>1)",
+            "{count(>1,3)}->{delay(100ms)}->{delay(100ms)}",
+            "<0,1>",
+            "[1,3]||(5,8)");
+
+    private static List<Boolean> run(RhythmixExecutor executor) {
+        List<Boolean> results = new ArrayList<>();
+        long t = 1_700_000_000_000L;
+        String[] values = {"0", "1", "2", "3", "9", "4", "-1", "2", "0", "1", "6", "7", "3", "3"};
+        for (int i = 0; i < values.length; i++) {
+            RhythmixEventData e = Util.genEventData("1", values[i], new Timestamp(t + i * 60L));
+            results.add(executor.execute(e));
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Parallel compilation gives the same executors as sequential compilation")
+    void testCompileAllMatchesSequential() throws TranslatorException {
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            codes.addAll(RULES);
+        }
+        List<RhythmixCompiler.CompilationResult> results = RhythmixCompiler.compileAll(codes, new ForkJoinPool(8));
+        assertEquals(codes.size(), results.size());
+        for (int i = 0; i < codes.size(); i++) {
+            RhythmixExecutor expected = RhythmixCompiler.compile(codes.get(i));
+            assertEquals(run(expected), run(results.get(i).getExecutor()), codes.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("A rule failing to compile does not stop the others")
+    void testCompileAllReportsFailures() {
+        List<RhythmixCompiler.CompilationResult> results = RhythmixCompiler.compileAll(
+                Arrays.asList("count(>4,3)", "filter((-5,5)).limit(5).window(3).sum().meet(>1)", ">1"));
+        assertNotNull(results.get(0).getExecutor());
+        assertNotNull(results.get(1).getException());
+        assertNotNull(results.get(2).getExecutor());
+    }
+
+    @Test
+    @DisplayName("Identical rules translate to the same script and share one expression")
+    void testIdenticalRulesShareExpression() throws TranslatorException {
+        for (String code : RULES) {
+            RhythmixExecutor first = RhythmixCompiler.compile(code);
+            RhythmixExecutor second = RhythmixCompiler.compile(code);
+            assertEquals(first.getCode(), second.getCode(), code);
+            assertSame(first.getExpression(), second.getExpression(), code);
+            assertEquals(first.getEnvProxy().getStates().keySet(), second.getEnvProxy().getStates().keySet());
+        }
+        RhythmixExecutor spaced = RhythmixCompiler.compile("filter( (-5, 5) ).window(3).sum().meet( >= 6 )");
+        assertSame(RhythmixCompiler.compile(RULES.get(2)).getExpression(), spaced.getExpression());
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for the keyed multi-entity {@link RhythmixEngine}
+ */
+class RhythmixEngineTest {
+
+    private static RhythmixEventData event(String code, String value, long ts) {
+        RhythmixEventData data = new RhythmixEventData("1", value, new Timestamp(ts));
+        data.setCode(code);
+        return data;
+    }
+
+    @Test
+    @DisplayName("Interleaved keys keep isolated state")
+    void testKeysAreIsolated() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("count!(>4,3)");
+        try (RhythmixEngine engine = RhythmixEngine.builder(executor).keyByCode().workers(2).build()) {
+            long t = System.currentTimeMillis();
+            // device a: 5,5,5 -> match on third; device b: 5,1,5 -> strict count reset
+            assertFalse(engine.submit(event("a", "5", t)).join());
+            assertFalse(engine.submit(event("b", "5", t)).join());
+            assertFalse(engine.submit(event("a", "5", t + 1)).join());
+            assertFalse(engine.submit(event("b", "1", t + 1)).join());
+            assertTrue(engine.submit(event("a", "5", t + 2)).join());
+            assertFalse(engine.submit(event("b", "5", t + 2)).join());
+            assertEquals(2, engine.getKeyCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Chain state is not shared between keys")
+    void testChainQueuesAreIsolated() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter((-5,5)).window(3).sum().meet(>=9)");
+        try (RhythmixEngine engine = RhythmixEngine.builder(executor).keyBySerialNumber().workers(3).build()) {
+            long t = System.currentTimeMillis();
+            List<CompletableFuture<Boolean>> a = new ArrayList<>();
+            List<CompletableFuture<Boolean>> b = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                RhythmixEventData ea = event("x", "3", t + i);
+                ea.setSerialNumber("a");
+                RhythmixEventData eb = event("x", "1", t + i);
+                eb.setSerialNumber("b");
+                a.add(engine.submit(ea));
+                b.add(engine.submit(eb));
+            }
+            assertTrue(a.get(2).join());
+            assertFalse(b.get(2).join());
+            // the template executor itself is untouched
+            assertFalse(executor.execute(event("x", "3", t)));
+        }
+    }
+
+    @Test
+    @DisplayName("Events of one key are evaluated in order, keys in parallel")
+    void testOrderingUnderConcurrency() throws Exception {
+        RhythmixExecutor executor = RhythmixCompiler.compile("count(>4,10)");
+        ConcurrentHashMap<Object, AtomicInteger> matches = new ConcurrentHashMap<>();
+        try (RhythmixEngine engine = RhythmixEngine.builder(executor)
+                .keyByCode()
+                .workers(4)
+                .onMatch((key, e) -> matches.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet())
+                .build()) {
+            long t = System.currentTimeMillis();
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                int producer = p;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        for (int k = 0; k < 5; k++) {
+                            engine.submit(event("p" + producer + "-k" + k, "5", t + i));
+                        }
+                    }
+                });
+                producers.add(thread);
+                thread.start();
+            }
+            for (Thread thread : producers) {
+                thread.join();
+            }
+        }
+        assertEquals(20, matches.size());
+        matches.values().forEach(count -> assertEquals(10, count.get()));
+    }
+
+    @Test
+    @DisplayName("Removed key restarts from the initial state")
+    void testRemoveKey() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("count(>4,2)");
+        try (RhythmixEngine engine = RhythmixEngine.builder(executor).keyByCode().workers(1).build()) {
+            long t = System.currentTimeMillis();
+            assertFalse(engine.submit(event("a", "5", t)).join());
+            engine.removeKey("a").join();
+            assertEquals(0, engine.getKeyCount());
+            assertFalse(engine.submit(event("a", "5", t + 1)).join());
+            assertTrue(engine.submit(event("a", "5", t + 2)).join());
+        }
+    }
+
+    @Test
+    @DisplayName("Null keys and invalid configuration are rejected")
+    void testInvalidUsage() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("count(>4,2)");
+        assertThrows(IllegalStateException.class, () -> RhythmixEngine.builder(executor).build());
+        assertThrows(IllegalArgumentException.class, () -> RhythmixEngine.builder(executor).workers(0));
+        try (RhythmixEngine engine = RhythmixEngine.builder(executor).keyByCode().workers(1).build()) {
+            CompletableFuture<Boolean> future = engine.submit(new RhythmixEventData("1", "5", new Timestamp(0)));
+            assertTrue(future.isCompletedExceptionally());
+        }
+    }
+}
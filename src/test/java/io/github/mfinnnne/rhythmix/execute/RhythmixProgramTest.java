@@ -0,0 +1,85 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link RhythmixProgram} and its {@link RhythmixState} instances
+ */
+class RhythmixProgramTest {
+
+    @Test
+    @DisplayName("States of one program are independent")
+    void testStatesAreIndependent() throws TranslatorException {
+        RhythmixProgram program = RhythmixCompiler.compileProgram("count(>4,2)");
+        RhythmixState s1 = program.newState();
+        RhythmixState s2 = program.newState();
+        long t = System.currentTimeMillis();
+        assertFalse(s1.execute(Util.genEventData("1", "5", new Timestamp(t))));
+        assertFalse(s2.execute(Util.genEventData("1", "1", new Timestamp(t))));
+        assertTrue(s1.execute(Util.genEventData("1", "5", new Timestamp(t + 1))));
+        assertFalse(s2.execute(Util.genEventData("1", "5", new Timestamp(t + 1))));
+        assertTrue(s2.execute(Util.genEventData("1", "5", new Timestamp(t + 2))));
+    }
+
+    @Test
+    @DisplayName("States share the compiled expression and UDF maps")
+    void testStatesShareProgram() throws TranslatorException {
+        RhythmixProgram program = RhythmixCompiler.compileProgram("filter((-5,5)).window(3).avg().meet(>1)");
+        List<RhythmixState> states = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            states.add(program.newState());
+        }
+        RhythmixState first = states.get(0);
+        RhythmixState last = states.get(states.size() - 1);
+        assertSame(first.getProgram().getExpression(), last.getProgram().getExpression());
+        assertSame(first.getEnv().get("filterUDFMap"), last.getEnv().get("filterUDFMap"));
+        first.getStates().forEach((k, v) -> {
+            if (k.contains("rawChainQueue")) {
+                assertNotSame(v, last.getStates().get(k));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("State behaves like the executor it was compiled from")
+    void testStateMatchesExecutor() throws TranslatorException {
+        String code = "filter((-5,5)).window(3).sum().meet(>=6)";
+        RhythmixExecutor executor = RhythmixCompiler.compile(code);
+        RhythmixState state = executor.getProgram().newState();
+        long t = System.currentTimeMillis();
+        String[] values = {"1", "2", "3", "9", "4", "-1", "2", "2", "2"};
+        for (int i = 0; i < values.length; i++) {
+            RhythmixEventData e = Util.genEventData("1", values[i], new Timestamp(t + i));
+            assertEquals(executor.execute(e), state.execute(e), "event " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Batch execution resets the state on match")
+    void testExecuteBatch() throws TranslatorException {
+        RhythmixState state = RhythmixCompiler.compileProgram("count(>4,3)").newState();
+        long t = System.currentTimeMillis();
+        RhythmixEventData p = Util.genEventData("1", "5", new Timestamp(t));
+        assertTrue(state.execute(p, p, p));
+        assertFalse(state.execute(p, p));
+    }
+
+    @Test
+    @DisplayName("A state of unknown mutable type is not shared between states")
+    void testUnknownStateIsRejected() {
+        RhythmixProgram program = new RhythmixProgram("true", null, new HashMap<>(),
+                new String[]{"queue$1", "index$1"}, new Object[]{new ArrayList<>(), 0});
+        assertThrows(IllegalStateException.class, program::newState);
+    }
+}
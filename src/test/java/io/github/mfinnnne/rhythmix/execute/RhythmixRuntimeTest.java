@@ -0,0 +1,61 @@
+package io.github.mfinnnne.rhythmix.execute;
+
+import com.googlecode.aviator.AviatorEvaluator;
+import com.googlecode.aviator.EvalMode;
+import com.googlecode.aviator.Options;
+import io.github.mfinnnne.rhythmix.config.RhythmixRuntimeOptions;
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link RhythmixRuntime}
+ */
+class RhythmixRuntimeTest {
+
+    @Test
+    @DisplayName("A runtime owns its Aviator instance and expression cache")
+    void testOwnInstance() throws TranslatorException {
+        RhythmixRuntime runtime = new RhythmixRuntime(RhythmixRuntimeOptions.builder()
+                .optimizeLevel(AviatorEvaluator.COMPILE)
+                .expressionCacheSize(8)
+                .evictionPolicy(ExpressionCache.EvictionPolicy.LFU)
+                .build());
+        assertNotSame(AviatorEvaluator.getInstance(), runtime.getEvaluator());
+        assertNotSame(RhythmixRuntime.getDefault().getEvaluator(), runtime.getEvaluator());
+        assertEquals(AviatorEvaluator.COMPILE, runtime.getEvaluator().getOptionValue(Options.OPTIMIZE_LEVEL).number);
+        assertEquals(8, runtime.getExpressionCache().getMaximumSize());
+        assertEquals(ExpressionCache.EvictionPolicy.LFU, runtime.getExpressionCache().getEvictionPolicy());
+
+        String code = "filter((-5,5)).window(3).sum().meet(>=6)";
+        RhythmixExecutor executor = runtime.compile(code);
+        assertEquals(1, runtime.getExpressionCache().size());
+        assertNotSame(RhythmixCompiler.compile(code).getExpression(), executor.getExpression());
+        assertSame(executor.getExpression(), executor.fork().getExpression());
+    }
+
+    @Test
+    @DisplayName("Rules run the same in interpreter mode, UDFs included")
+    void testInterpreterMode() throws TranslatorException {
+        RhythmixRuntime runtime = new RhythmixRuntime(RhythmixRuntimeOptions.builder()
+                .evalMode(EvalMode.INTERPRETER)
+                .build());
+        String[] rules = {"count(>4,2)", "filter(numericFilter()).window(2).maxcalc().meet(>3)"};
+        for (String rule : rules) {
+            RhythmixExecutor interpreted = runtime.compile(rule);
+            RhythmixExecutor compiled = RhythmixCompiler.compile(rule);
+            long t = System.currentTimeMillis();
+            String[] values = {"1", "5", "2", "6", "3", "7"};
+            for (int i = 0; i < values.length; i++) {
+                Timestamp ts = new Timestamp(t + i);
+                assertEquals(compiled.execute(Util.genEventData("1", values[i], ts)),
+                        interpreted.execute(Util.genEventData("1", values[i], ts)), rule + " event " + i);
+            }
+        }
+    }
+}
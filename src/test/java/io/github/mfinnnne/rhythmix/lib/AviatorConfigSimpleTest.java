@@ -27,12 +27,6 @@ public class AviatorConfigSimpleTest {
         AviatorConfig.operatorOverloading();
     }
 
-    @BeforeEach
-    void setUp() {
-        // Clear caches before each test
-        AviatorConfig.clearCaches();
-    }
-
     @Test
     @Order(1)
     @DisplayName("Test numeric comparisons")
@@ -63,4 +63,29 @@ class AviatorMathTest {
         Number stddev = AviatorMath.stddev(objects);
         Assertions.assertEquals("1.4142135623730951",stddev.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void sumMixedAndNegativeValues() throws ComputeException {
+        List<Object> objects = new ArrayList<>();
+        objects.add(Util.genEventData("1", "-4", new Timestamp(System.currentTimeMillis())));
+        objects.add(Util.genEventData("1", "3", new Timestamp(System.currentTimeMillis())));
+        Assertions.assertEquals(-1, AviatorMath.sum(objects));
+        objects.add(Util.genEventData("1", "0.5", new Timestamp(System.currentTimeMillis())));
+        Assertions.assertEquals(-0.5, AviatorMath.sum(objects));
+        objects.add(Util.genEventData("1", String.valueOf(Integer.MAX_VALUE), new Timestamp(System.currentTimeMillis())));
+        objects.add(Util.genEventData("1", "1", new Timestamp(System.currentTimeMillis())));
+        objects.remove(2);
+        Assertions.assertEquals(Integer.MAX_VALUE, AviatorMath.sum(objects));
+        objects.add(Util.genEventData("1", "1", new Timestamp(System.currentTimeMillis())));
+        Assertions.assertEquals(Integer.MAX_VALUE + 1L, AviatorMath.sum(objects));
+    }
+
+    @Test
+    void nonNumericValueIsRejected() {
+        List<Object> objects = new ArrayList<>();
+        objects.add(Util.genEventData("1", "10", new Timestamp(System.currentTimeMillis())));
+        objects.add(Util.genEventData("1", "abc", new Timestamp(System.currentTimeMillis())));
+        Assertions.assertThrows(ComputeException.class, () -> AviatorMath.sum(objects));
+        Assertions.assertThrows(ComputeException.class, () -> AviatorMath.stddev(objects));
+    }
+}
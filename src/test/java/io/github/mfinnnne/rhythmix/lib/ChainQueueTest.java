@@ -0,0 +1,58 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class ChainQueueTest {
+
+    @Test
+    void behavesLikeAListAcrossWraparoundAndGrowth() {
+        Random random = new Random(7);
+        ChainQueue queue = new ChainQueue(3);
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6) {
+                queue.push(i);
+                expected.add(i);
+            } else if (op < 9 && !expected.isEmpty()) {
+                Assertions.assertEquals(expected.remove(0), queue.poll());
+            } else if (!expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                Assertions.assertEquals(expected.remove(index), queue.remove(index));
+            }
+            Assertions.assertEquals(expected, queue);
+        }
+        queue.clear();
+        Assertions.assertTrue(queue.isEmpty());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, queue::poll);
+    }
+
+    @Test
+    void viewFollowsStreamPositions() {
+        ChainQueue queue = new ChainQueue(4);
+        for (int i = 1; i <= 4; i++) {
+            queue.push(i);
+        }
+        ChainQueue.View view = queue.view(1, 3);
+        Assertions.assertEquals(List.of(2, 3), view);
+        queue.push(5);
+        queue.poll();
+        Assertions.assertEquals(List.of(2, 3), view);
+        queue.poll();
+        Assertions.assertEquals(List.of(3), view);
+        view.clear();
+        Assertions.assertTrue(view.isEmpty());
+        Assertions.assertEquals(List.of(3, 4, 5), queue);
+
+        view.assign(queue, 0, 3);
+        Assertions.assertEquals(List.of(3, 4, 5), view);
+        queue.clear();
+        Assertions.assertTrue(view.isEmpty());
+        Assertions.assertTrue(new ChainQueue.View().isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class HitCounterTest {
+
+    @Test
+    void countsHitsOfQueueAndViews() {
+        Random random = new Random(19);
+        ChainQueue queue = new ChainQueue(4);
+        ChainQueue.View view = new ChainQueue.View();
+        HitCounter counter = new HitCounter();
+        for (int i = 0; i < 5000; i++) {
+            int op = random.nextInt(23);
+            if (op < 11) {
+                queue.push(random.nextInt(10));
+            } else if (op < 19 && !queue.isEmpty()) {
+                queue.poll();
+            } else if (op == 19) {
+                queue.clear();
+            } else if (op == 20 && queue.size() > 1) {
+                // a filter UDF removing events from the middle
+                queue.remove(1 + random.nextInt(queue.size() - 1));
+            } else if (op == 21 && !queue.isEmpty()) {
+                queue.add(random.nextInt(queue.size()), random.nextInt(10));
+            } else if (op == 22 && !queue.isEmpty()) {
+                queue.set(random.nextInt(queue.size()), random.nextInt(10));
+            }
+            if (random.nextInt(3) == 0) {
+                // the calculator does not run on every event
+                continue;
+            }
+            for (int index = counter.unmarked(queue); index < queue.size(); index++) {
+                counter.mark((Integer) queue.get(index) < 3);
+            }
+            Assertions.assertEquals(hits(queue, 0, queue.size()), counter.count(queue));
+            int from = queue.isEmpty() ? 0 : random.nextInt(queue.size());
+            int to = from + (queue.isEmpty() ? 0 : random.nextInt(queue.size() - from + 1));
+            view.assign(queue, from, to);
+            Assertions.assertEquals(hits(queue, from, to), counter.count(view));
+        }
+        Assertions.assertEquals(0, counter.unmarked(new ChainQueue()));
+    }
+
+    private static long hits(ChainQueue queue, int from, int to) {
+        return queue.subList(from, to).stream().filter(value -> (Integer) value < 3).count();
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
+import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+class NumericChainQueueTest {
+
+    @Test
+    void keepsTimestampAndValue() {
+        NumericChainQueue queue = new NumericChainQueue(2);
+        List<RhythmixEventData> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String value = i % 3 == 0 ? "abc" : (i % 3 == 1 ? String.valueOf(i) : i + ".5");
+            RhythmixEventData event = Util.genEventData("1", value, new Timestamp(1000L + i));
+            events.add(event);
+            queue.push(event);
+        }
+        queue.poll();
+        queue.remove(3);
+        events.remove(0);
+        events.remove(3);
+        Assertions.assertEquals(events.size(), queue.size());
+        for (int i = 0; i < events.size(); i++) {
+            RhythmixEventData event = events.get(i);
+            RhythmixEventData element = (RhythmixEventData) queue.get(i);
+            Assertions.assertEquals(event.getValue(), element.getValue());
+            Assertions.assertEquals(event.getTs().getTime(), element.getTs().getTime());
+            Assertions.assertEquals(event.getNumber(), queue.number(i));
+            Assertions.assertEquals(event.getTs().getTime(), queue.time(i));
+        }
+        // a value that is not a number keeps its event
+        Assertions.assertSame(events.get(2), queue.get(2));
+    }
+
+    @Test
+    void builtinChainsStoreColumns() throws TranslatorException {
+        RhythmixExecutor numeric = RhythmixCompiler.compile("filter(>0).window(3).avg().meet(>1)");
+        Assertions.assertTrue(numeric.getEnvProxy().getStates().values().stream().anyMatch(NumericChainQueue.class::isInstance));
+        RhythmixExecutor udf = RhythmixCompiler.compile("filter(numericFilter()).limit(3).maxcalc().meet(>1)");
+        Assertions.assertTrue(udf.getEnvProxy().getStates().values().stream().noneMatch(NumericChainQueue.class::isInstance));
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+class OrderStatisticsTest {
+
+    @Test
+    void selectsLikeASortedList() {
+        Random random = new Random(13);
+        OrderStatistics statistics = new OrderStatistics();
+        List<Double> window = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double value = random.nextInt(50) / 2.0;
+            statistics.add(value);
+            window.add(value);
+            if (window.size() > 100) {
+                Assertions.assertTrue(statistics.remove(window.remove(0)));
+            }
+            List<Double> sorted = new ArrayList<>(window);
+            Collections.sort(sorted);
+            Assertions.assertEquals(sorted.size(), statistics.size());
+            int k = random.nextInt(sorted.size());
+            Assertions.assertEquals(sorted.get(k), statistics.select(k));
+        }
+        Assertions.assertFalse(statistics.remove(-1));
+        statistics.clear();
+        Assertions.assertEquals(0, statistics.size());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> statistics.select(0));
+    }
+}
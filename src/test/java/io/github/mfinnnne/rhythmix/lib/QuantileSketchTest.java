@@ -0,0 +1,42 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class QuantileSketchTest {
+
+    @Test
+    void exactUntilFirstCompaction() {
+        QuantileSketch sketch = new QuantileSketch(QuantileSketch.DEFAULT_K);
+        for (int i = 10; i >= 1; i--) {
+            sketch.add(i);
+        }
+        Assertions.assertEquals(5.5, sketch.percentile(50));
+        Assertions.assertEquals(1, sketch.percentile(0));
+        Assertions.assertEquals(10, sketch.percentile(100));
+        Assertions.assertEquals(9.1, sketch.percentile(90), 1e-9);
+    }
+
+    @Test
+    void boundsRankErrorOnALongStream() {
+        Random random = new Random(17);
+        QuantileSketch sketch = new QuantileSketch(QuantileSketch.DEFAULT_K);
+        int n = 200_000;
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextGaussian() * 10;
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double p : new double[]{1, 10, 50, 90, 99}) {
+            double estimate = sketch.percentile(p);
+            int rank = Arrays.binarySearch(values, estimate);
+            double error = Math.abs(rank / (double) n - p / 100);
+            Assertions.assertTrue(error < 0.02, "p" + p + " rank error " + error);
+        }
+        Assertions.assertEquals(n, sketch.getCount());
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import io.github.mfinnnne.rhythmix.exception.ComputeException;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class SlidingStatsTest {
+
+    @Test
+    void matchesRecomputedAggregates() throws ComputeException {
+        Random random = new Random(42);
+        SlidingStats stats = new SlidingStats();
+        List<Object> window = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String value = random.nextBoolean() ? String.valueOf(random.nextInt(200) - 100)
+                    : String.valueOf(random.nextInt(20000) / 100.0 - 100);
+            RhythmixEventData event = Util.genEventData("1", value, new Timestamp(i));
+            stats.add(event);
+            window.add(event);
+            if (window.size() > 50) {
+                stats.remove(window.remove(0));
+            }
+            Assertions.assertEquals(window.size(), stats.getCount());
+            Assertions.assertEquals(AviatorMath.sum(window).doubleValue(), stats.sum().doubleValue(), 1e-9);
+            Assertions.assertEquals(AviatorMath.avg(window).doubleValue(), stats.avg().doubleValue(), 1e-9);
+            if (window.size() > 1) {
+                Assertions.assertEquals(AviatorMath.stddev(window).doubleValue(), stats.stddev().doubleValue(), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    void keepsIntegralSumType() throws ComputeException {
+        SlidingStats stats = new SlidingStats();
+        RhythmixEventData a = Util.genEventData("1", "10", new Timestamp(0));
+        RhythmixEventData b = Util.genEventData("1", "0.5", new Timestamp(1));
+        stats.add(a);
+        Assertions.assertEquals(10, stats.sum());
+        stats.add(b);
+        Assertions.assertEquals(10.5, stats.sum());
+        stats.remove(b);
+        Assertions.assertEquals(10, stats.sum());
+        stats.remove(a);
+        Assertions.assertEquals(0, stats.sum());
+        Assertions.assertEquals(0, stats.getCount());
+    }
+
+    @Test
+    void nonNumericValueIsRejected() {
+        SlidingStats stats = new SlidingStats();
+        stats.add(Util.genEventData("1", "10", new Timestamp(0)));
+        RhythmixEventData text = Util.genEventData("1", "abc", new Timestamp(1));
+        stats.add(text);
+        Assertions.assertEquals(2, stats.getCount());
+        Assertions.assertThrows(ComputeException.class, stats::sum);
+        Assertions.assertThrows(ComputeException.class, stats::stddev);
+        stats.remove(text);
+        Assertions.assertDoesNotThrow(stats::sum);
+    }
+}
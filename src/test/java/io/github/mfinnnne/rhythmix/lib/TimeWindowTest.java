@@ -0,0 +1,65 @@
+package io.github.mfinnnne.rhythmix.lib;
+
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class TimeWindowTest {
+
+    /**
+     * Compares with the scan the window template did on every event.
+     */
+    @Test
+    void matchesFullScan() {
+        Random random = new Random(11);
+        TimeWindow window = new TimeWindow(20);
+        ChainQueue queue = new NumericChainQueue();
+        ChainQueue.View processed = new ChainQueue.View();
+        List<Long> raw = new ArrayList<>();
+        List<Long> expectedWindow = new ArrayList<>();
+        long t = 0;
+        for (int i = 0; i < 5000; i++) {
+            t += random.nextInt(10) == 0 ? random.nextInt(60) : random.nextInt(4);
+            RhythmixEventData event = Util.genEventData("1", String.valueOf(i), new Timestamp(t));
+            queue.push(event);
+            raw.add(t);
+
+            if (raw.size() > 2) {
+                for (int index = 1; index < raw.size() - 1; index++) {
+                    if (raw.get(index) - raw.get(0) >= 20) {
+                        raw.remove(0);
+                        break;
+                    }
+                }
+            }
+            boolean expected = false;
+            if (raw.size() >= 2) {
+                expectedWindow.clear();
+                for (int index = 1; index < raw.size(); index++) {
+                    long diff = raw.get(index) - raw.get(0);
+                    if (diff >= 20) {
+                        expectedWindow.addAll(raw.subList(0, diff == 20 ? index + 1 : index));
+                        expected = true;
+                        break;
+                    }
+                }
+            }
+
+            Assertions.assertEquals(expected, window.slide(queue, processed));
+            Assertions.assertEquals(raw.size(), queue.size());
+            if (expected) {
+                List<Long> actual = new ArrayList<>();
+                for (int index = 0; index < processed.size(); index++) {
+                    actual.add(processed.time(index));
+                }
+                Assertions.assertEquals(expectedWindow, actual);
+            }
+        }
+    }
+}
@@ -132,7 +132,8 @@ class ArrowExprTest {
         EnvProxy env = new EnvProxy();
         String translatedCode = Translator.translate(code, env);
         RhythmixExecutor translate = new RhythmixExecutor(translatedCode, env);
-        Timestamp ts = new Timestamp(System.currentTimeMillis());
+        // the arrow records its finish time with now(), keep the events strictly before it
+        Timestamp ts = new Timestamp(System.currentTimeMillis() - 1);
         RhythmixEventData p1 = Util.genEventData("1", "9", ts);
         RhythmixEventData p2 = Util.genEventData("1", "7", Util.addMs(ts, 100));
         RhythmixEventData p3 = Util.genEventData("1", "7", Util.addMs(ts, 200));
@@ -63,4 +63,43 @@ class CompareExprTest {
             new RhythmixExecutor(translatedCode,env);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void translateTypedCompareExpr() throws TranslatorException {
+        Assertions.assertTrue(Translator.translate(">1", new EnvProxy()).contains("coerce.value(event,event.value)>1"));
+        Assertions.assertTrue(Translator.translate("==true", new EnvProxy()).contains("coerce.bool(event.value)==true"));
+        String stringCompare = Translator.translate("=='on'", new EnvProxy()).replaceAll("\\s+", "");
+        Assertions.assertFalse(stringCompare.contains("coerce."));
+    }
+
+    @Test
+    void executeTypedCompareExpr() throws TranslatorException {
+        long t = System.currentTimeMillis();
+        String[][] cases = {
+                // rule, event value, expected
+                {">1", "2", "true"},
+                {">1", "1.5", "true"},
+                {">1", "-3", "false"},
+                {">1", "abc", "false"},
+                {"<1", "abc", "true"},
+                {"!=1", "abc", "true"},
+                {"==5", "5.0", "true"},
+                {">1", "12345678901", "true"},
+                {"==1", "true", "true"},
+                {"==true", "TRUE", "true"},
+                {"==false", "true", "false"},
+                {"=='on'", "on", "true"},
+                {"[1,3]", "2.5", "true"},
+                {"[1,3]", "x", "false"},
+                {">1", ".", "false"},
+                {">1", "-.", "false"},
+                {"(1,5)", ".", "false"},
+                {"(1,5)", "-.", "false"},
+        };
+        for (String[] c : cases) {
+            RhythmixExecutor executor = io.github.mfinnnne.rhythmix.execute.RhythmixCompiler.compile(c[0]);
+            Assertions.assertEquals(Boolean.parseBoolean(c[2]),
+                    executor.execute(Util.genEventData("1", c[1], new Timestamp(t))), c[0] + " " + c[1]);
+        }
+    }
+}
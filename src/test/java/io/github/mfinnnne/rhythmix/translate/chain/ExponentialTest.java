@@ -0,0 +1,70 @@
+package io.github.mfinnnne.rhythmix.translate.chain;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
+import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.lib.ChainQueue;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.Random;
+
+public class ExponentialTest {
+
+    @Test
+    void averageAndVarianceWithoutWindow() throws TranslatorException {
+        RhythmixExecutor ewma = RhythmixCompiler.compile("filter(>0).ewma(0.3).meet(>30)");
+        RhythmixExecutor ewmvar = RhythmixCompiler.compile("filter(>0).ewmvar(0.3).meet(>100)");
+        Random random = new Random(3);
+        long t = System.currentTimeMillis();
+        double mean = 0;
+        double variance = 0;
+        boolean first = true;
+        for (int i = 0; i < 500; i++) {
+            int value = random.nextInt(80) - 20;
+            if (value > 0) {
+                if (first) {
+                    mean = value;
+                    first = false;
+                } else {
+                    double delta = value - mean;
+                    mean += 0.3 * delta;
+                    variance = 0.7 * (variance + 0.3 * delta * delta);
+                }
+            }
+            boolean accepted = value > 0;
+            String data = String.valueOf(value);
+            Assertions.assertEquals(accepted && mean > 30, ewma.execute(Util.genEventData("1", data, new Timestamp(t + i))), "ewma, event " + i);
+            Assertions.assertEquals(accepted && variance > 100, ewmvar.execute(Util.genEventData("1", data, new Timestamp(t + i))), "ewmvar, event " + i);
+        }
+        // the queue only keeps the latest event
+        Assertions.assertTrue(ewma.getEnvProxy().getStates().values().stream()
+                .filter(ChainQueue.class::isInstance)
+                .allMatch(queue -> ((ChainQueue) queue).size() <= 1));
+    }
+
+    @Test
+    void halfLifeDecaysWithTimestamps() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter().ewma(10ms).meet(>=50)");
+        long t = System.currentTimeMillis();
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "0", new Timestamp(t))));
+        // after one half-life the new value weighs one half
+        Assertions.assertTrue(executor.execute(Util.genEventData("1", "100", new Timestamp(t + 10))));
+        // after two half-lives, three quarters: 50 + 0.75 * (0 - 50)
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "0", new Timestamp(t + 30))));
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "100", new Timestamp(t + 30))));
+    }
+
+    @Test
+    void rejectsWindowLimitAndTake() {
+        // the weighted average has no window, it would be ignored
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter(>=0).window(1).ewma(0.5).meet(>=4)"));
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter(>=0).window(3s).ewmvar(0.5).meet(>=4)"));
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter(>=0).limit(5).ewma(0.5).meet(>=4)"));
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter(>=0).limit(5).take(0,2).ewma(0.5).meet(>=4)"));
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter().ewma(2).meet(>1)"));
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter().ewmvar().meet(>1)"));
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.mfinnnne.rhythmix.translate.chain;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
+import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ExtremesTest {
+
+    @Test
+    void countWindowKeepsSlidingExtremes() throws TranslatorException {
+        RhythmixExecutor max = RhythmixCompiler.compile("filter((-50,50)).window(5).max().meet(>30)");
+        RhythmixExecutor min = RhythmixCompiler.compile("filter((-50,50)).window(5).min().meet(<-30)");
+        RhythmixExecutor range = RhythmixCompiler.compile("filter((-50,50)).window(5).range().meet(>=60)");
+        Assertions.assertTrue(max.getCode().contains("stats.max"));
+        Random random = new Random(5);
+        List<Integer> window = new ArrayList<>();
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < 300; i++) {
+            int value = random.nextInt(140) - 70;
+            boolean full = false;
+            if (value > -50 && value < 50) {
+                window.add(value);
+                if (window.size() > 5) {
+                    window.remove(0);
+                }
+                full = window.size() == 5;
+            }
+            RhythmixEventData event = Util.genEventData("1", String.valueOf(value), new Timestamp(t + i));
+            int hi = window.isEmpty() ? 0 : Collections.max(window);
+            int lo = window.isEmpty() ? 0 : Collections.min(window);
+            Assertions.assertEquals(full && hi > 30, max.execute(event), "max, event " + i);
+            Assertions.assertEquals(full && lo < -30, min.execute(event), "min, event " + i);
+            Assertions.assertEquals(full && hi - lo >= 60, range.execute(event), "range, event " + i);
+        }
+    }
+
+    @Test
+    void limitKeepsSlidingMaximum() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter(>0).limit(3).max().meet(>=10.5)");
+        long t = System.currentTimeMillis();
+        String[] values = {"1", "10.5", "2", "3", "4", "11", "1"};
+        boolean[] expected = {false, true, true, true, false, true, true};
+        for (int i = 0; i < values.length; i++) {
+            RhythmixEventData event = Util.genEventData("1", values[i], new Timestamp(t + i));
+            Assertions.assertEquals(expected[i], executor.execute(event), "event " + i);
+        }
+    }
+
+    @Test
+    void timeWindowScansTheWindow() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter().window(3ms).range().meet(>3)");
+        Assertions.assertFalse(executor.getCode().contains("stats.range"));
+        long t = System.currentTimeMillis();
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "1", new Timestamp(t))));
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "5", new Timestamp(t + 1))));
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "2", new Timestamp(t + 2))));
+        // window [1, 5, 2, 3]
+        Assertions.assertTrue(executor.execute(Util.genEventData("1", "3", new Timestamp(t + 3))));
+    }
+}
@@ -4,14 +4,39 @@ import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
 import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
 import io.github.mfinnnne.rhythmix.pebble.TemplateEngine;
+import io.github.mfinnnne.rhythmix.udf.ChainFilterUDF;
+import io.github.mfinnnne.rhythmix.udf.RhythmixUDF;
 import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
 import io.github.mfinnnne.rhythmix.util.Util;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 public class HitRateTest {
+
+    /**
+     * Drops the events below 3 when an 8 arrives, from anywhere in the queue.
+     */
+    @RhythmixUDF
+    public static class DropLowOnEightFilterUDF implements ChainFilterUDF {
+        @Override
+        public String getName() {
+            return "dropLowOnEight";
+        }
+
+        @Override
+        public List<RhythmixEventData> filter(List<RhythmixEventData> events) {
+            if ("8".equals(events.get(events.size() - 1).getValue())) {
+                events.removeIf(event -> Double.parseDouble(event.getValue()) < 3);
+            }
+            return events;
+        }
+    }
+
     @Test
     void test1() throws TranslatorException {
         TemplateEngine.enableDebugModel(true);
@@ -29,4 +54,36 @@ public class HitRateTest {
         boolean execute = rhythmixExecutor.execute(p3);
         Assertions.assertFalse(execute);
     }
+
+    @Test
+    void slidingWindowMarksEachEventOnce() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter(>0).window(4).hitRate(>3).meet(>=1)");
+        Random random = new Random(9);
+        List<Integer> window = new ArrayList<>();
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < 300; i++) {
+            int value = random.nextInt(12) - 2;
+            if (value > 0) {
+                window.add(value);
+                if (window.size() > 4) {
+                    window.remove(0);
+                }
+            }
+            boolean expected = value > 0 && window.size() == 4 && window.stream().allMatch(x -> x > 3);
+            RhythmixEventData event = Util.genEventData("1", String.valueOf(value), new Timestamp(t + i));
+            Assertions.assertEquals(expected, executor.execute(event), "event " + i);
+        }
+    }
+
+    @Test
+    void filterUDFRemovingMarkedEvents() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter(dropLowOnEight()).hitRate(>3).meet(>=1)");
+        String[] values = {"1", "5", "2", "8", "1", "4", "8", "9", "2", "8"};
+        boolean[] expected = {false, false, false, true, false, false, true, false, false, true};
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < values.length; i++) {
+            RhythmixEventData event = Util.genEventData("1", values[i], new Timestamp(t + i));
+            Assertions.assertEquals(expected[i], executor.execute(event), "event " + i);
+        }
+    }
 }
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.sql.Timestamp;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -108,4 +109,30 @@ class LimitTest {
             RhythmixCompiler.compile(code1);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void slidingAggregatesMatchQueueAggregates() throws TranslatorException {
+        // take(0) keeps the whole limited queue but reads it through the processed queue,
+        // so the second rule recomputes the aggregate over the queue on every event
+        String[][] rules = {
+                {"filter((-50,50)).limit(5).avg().meet(>3)", "filter((-50,50)).limit(5).take(0).avg().meet(>3)"},
+                {"filter((-50,50)).limit(5).sum().meet(>=20)", "filter((-50,50)).limit(5).take(0).sum().meet(>=20)"},
+                {"filter((-50,50)).limit(4).stddev().meet(>20)", "filter((-50,50)).limit(4).take(0).stddev().meet(>20)"},
+                {"filter((-50,50)).limit(20ms).count().meet(>=8)", "filter((-50,50)).limit(20ms).take(0).count().meet(>=8)"},
+        };
+        Random random = new Random(7);
+        for (String[] rule : rules) {
+            RhythmixExecutor sliding = RhythmixCompiler.compile(rule[0]);
+            RhythmixExecutor recomputed = RhythmixCompiler.compile(rule[1]);
+            Assertions.assertTrue(sliding.getCode().contains("stats."), rule[0]);
+            Assertions.assertFalse(recomputed.getCode().contains("stats."), rule[1]);
+            long t = 0;
+            for (int i = 0; i < 300; i++) {
+                t += random.nextInt(5);
+                String value = random.nextInt(4) == 0 ? (random.nextInt(1200) / 10.0 - 60) + "" : String.valueOf(random.nextInt(120) - 60);
+                RhythmixEventData event = Util.genEventData("1", value, new Timestamp(t));
+                assertEquals(recomputed.execute(event), sliding.execute(event), rule[0] + " at event " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.mfinnnne.rhythmix.translate.chain;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
+import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.lib.ChainQueue;
+import io.github.mfinnnne.rhythmix.util.RhythmixEventData;
+import io.github.mfinnnne.rhythmix.util.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class PercentileTest {
+
+    @Test
+    void countWindowKeepsExactPercentile() throws TranslatorException {
+        RhythmixExecutor p90 = RhythmixCompiler.compile("filter((-50,50)).window(7).percentile(90).meet(>30)");
+        RhythmixExecutor median = RhythmixCompiler.compile("filter((-50,50)).window(7).median().meet(>0)");
+        Assertions.assertTrue(p90.getCode().contains("stats.percentile"));
+        Random random = new Random(19);
+        List<Integer> window = new ArrayList<>();
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < 300; i++) {
+            int value = random.nextInt(140) - 70;
+            boolean full = false;
+            if (value > -50 && value < 50) {
+                window.add(value);
+                if (window.size() > 7) {
+                    window.remove(0);
+                }
+                full = window.size() == 7;
+            }
+            List<Integer> sorted = new ArrayList<>(window);
+            Collections.sort(sorted);
+            RhythmixEventData event = Util.genEventData("1", String.valueOf(value), new Timestamp(t + i));
+            // rank 5.4 of 0..6
+            boolean expected90 = full && sorted.get(5) + 0.4 * (sorted.get(6) - sorted.get(5)) > 30;
+            boolean expectedMedian = full && sorted.get(3) > 0;
+            Assertions.assertEquals(expected90, p90.execute(event), "p90, event " + i);
+            Assertions.assertEquals(expectedMedian, median.execute(event), "median, event " + i);
+        }
+    }
+
+    @Test
+    void growingChainUsesSketch() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter(>0).median().meet(>=3)");
+        Assertions.assertTrue(executor.getCode().contains("stats.add"));
+        long t = System.currentTimeMillis();
+        String[] values = {"1", "5", "2", "4", "3"};
+        boolean[] expected = {false, true, false, true, true};
+        for (int i = 0; i < values.length; i++) {
+            RhythmixEventData event = Util.genEventData("1", values[i], new Timestamp(t + i));
+            Assertions.assertEquals(expected[i], executor.execute(event), "event " + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(Util.genEventData("1", String.valueOf(i % 7 + 1), new Timestamp(t + values.length + i)));
+        }
+        // the sketch holds the quantile, the queue only keeps the latest event
+        Assertions.assertTrue(executor.getEnvProxy().getStates().values().stream()
+                .filter(ChainQueue.class::isInstance)
+                .allMatch(queue -> ((ChainQueue) queue).size() <= 1));
+    }
+
+    @Test
+    void timeWindowScansTheWindow() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter().window(3ms).percentile(75).meet(>4)");
+        Assertions.assertFalse(executor.getCode().contains("stats.percentile"));
+        long t = System.currentTimeMillis();
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "1", new Timestamp(t))));
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "5", new Timestamp(t + 1))));
+        Assertions.assertFalse(executor.execute(Util.genEventData("1", "2", new Timestamp(t + 2))));
+        // window [1, 5, 2, 6], rank 2.25: 5 + 0.25 * 1
+        Assertions.assertTrue(executor.execute(Util.genEventData("1", "6", new Timestamp(t + 3))));
+    }
+
+    @Test
+    void rejectsInvalidPercentile() {
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter(>0).percentile(101).meet(>1)"));
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter(>0).percentile().meet(>1)"));
+        Assertions.assertThrows(TranslatorException.class, () -> RhythmixCompiler.compile("filter(>0).median(3).meet(>1)"));
+    }
+}
@@ -3,6 +3,7 @@ package io.github.mfinnnne.rhythmix.translate.chain;
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
 import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.lib.ChainQueue;
 import io.github.mfinnnne.rhythmix.pebble.TemplateEngine;
 import io.github.mfinnnne.rhythmix.translate.EnvProxy;
 import io.github.mfinnnne.rhythmix.translate.Translator;
@@ -12,6 +13,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 
 class TakeTest {
     @Test
@@ -156,4 +159,31 @@ class TakeTest {
         Assertions.assertThrows(TranslatorException.class, () -> Translator.translate(code, env));
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void takeIsAViewOfTheRawQueue() throws TranslatorException {
+        String code = "filter().limit(5).take(-3,-1).sum().meet(>100)";
+        RhythmixExecutor rhythmixExecutor = RhythmixCompiler.compile(code);
+        Object processed = processedQueue(rhythmixExecutor);
+        Assertions.assertInstanceOf(ChainQueue.View.class, processed);
+        List<String> raw = new ArrayList<>();
+        long t = System.currentTimeMillis();
+        for (int i = 1; i <= 8; i++) {
+            rhythmixExecutor.execute(Util.genEventData("1", String.valueOf(i), new Timestamp(t + i)));
+            raw.add(String.valueOf(i));
+            if (raw.size() > 5) {
+                raw.remove(0);
+            }
+            Assertions.assertSame(processed, processedQueue(rhythmixExecutor));
+            if (raw.size() >= 3) {
+                Assertions.assertEquals(raw.subList(raw.size() - 3, raw.size() - 1), Util.getChainProcessedQueueData(rhythmixExecutor));
+            }
+        }
+    }
+
+    private static Object processedQueue(RhythmixExecutor executor) {
+        return executor.getEnvProxy().getStates().entrySet().stream()
+                .filter(entry -> entry.getKey().contains("processedChainQueue"))
+                .findFirst().orElseThrow().getValue();
+    }
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 class WindowTest {
@@ -109,15 +110,16 @@ class WindowTest {
         TemplateEngine.enableDebugModel(true);
         String code = "filter().window(3ms).sum().meet(>0)";
         RhythmixExecutor rhythmixExecutor = RhythmixCompiler.compile(code);
-        RhythmixEventData p1 = Util.genEventData("1", "1", new Timestamp(System.currentTimeMillis()));
-        RhythmixEventData p2 = Util.genEventData("1", "2", new Timestamp(System.currentTimeMillis() + 1));
-        RhythmixEventData p3 = Util.genEventData("1", "3", new Timestamp(System.currentTimeMillis() + 2));
-        RhythmixEventData p4 = Util.genEventData("1", "4", new Timestamp(System.currentTimeMillis() + 3));
-        RhythmixEventData p5 = Util.genEventData("1", "5", new Timestamp(System.currentTimeMillis() + 4));
-        RhythmixEventData p6 = Util.genEventData("1", "6", new Timestamp(System.currentTimeMillis() + 10));
-        RhythmixEventData p7 = Util.genEventData("1", "7", new Timestamp(System.currentTimeMillis() + 11));
-        RhythmixEventData p8 = Util.genEventData("1", "8", new Timestamp(System.currentTimeMillis() + 12));
-        RhythmixEventData p9 = Util.genEventData("1", "9", new Timestamp(System.currentTimeMillis() + 13));
+        long t = System.currentTimeMillis();
+        RhythmixEventData p1 = Util.genEventData("1", "1", new Timestamp(t));
+        RhythmixEventData p2 = Util.genEventData("1", "2", new Timestamp(t + 1));
+        RhythmixEventData p3 = Util.genEventData("1", "3", new Timestamp(t + 2));
+        RhythmixEventData p4 = Util.genEventData("1", "4", new Timestamp(t + 3));
+        RhythmixEventData p5 = Util.genEventData("1", "5", new Timestamp(t + 4));
+        RhythmixEventData p6 = Util.genEventData("1", "6", new Timestamp(t + 10));
+        RhythmixEventData p7 = Util.genEventData("1", "7", new Timestamp(t + 11));
+        RhythmixEventData p8 = Util.genEventData("1", "8", new Timestamp(t + 12));
+        RhythmixEventData p9 = Util.genEventData("1", "9", new Timestamp(t + 13));
 
         rhythmixExecutor.execute(p1);
         rhythmixExecutor.execute(p2);
@@ -150,14 +152,37 @@ class WindowTest {
     }
 
 
+    @Test
+    void countWindowKeepsSlidingAggregates() throws TranslatorException {
+        String code = "filter((-50,50)).window(4).avg().meet(>5)";
+        RhythmixExecutor rhythmixExecutor = RhythmixCompiler.compile(code);
+        Assertions.assertTrue(rhythmixExecutor.getCode().contains("stats.avg"));
+        Random random = new Random(3);
+        List<Integer> window = new ArrayList<>();
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < 200; i++) {
+            int value = random.nextInt(140) - 70;
+            boolean expected = false;
+            if (value > -50 && value < 50) {
+                window.add(value);
+                if (window.size() > 4) {
+                    window.remove(0);
+                }
+                expected = window.size() == 4 && window.stream().mapToInt(Integer::intValue).sum() / 4.0 > 5;
+            }
+            RhythmixEventData event = Util.genEventData("1", String.valueOf(value), new Timestamp(t + i));
+            Assertions.assertEquals(expected, rhythmixExecutor.execute(event), "event " + i);
+        }
+    }
+
     private List<String> getChainProcessedQueueData(RhythmixExecutor executor) {
         final EnvProxy envProxy = executor.getEnvProxy();
         List<RhythmixEventData> data = new ArrayList<>();
-        envProxy.getEnv().forEach((k, v) -> {
+        envProxy.getStates().forEach((k, v) -> {
            if (k.contains("processedChainQueue")) {
                data.addAll(((List<RhythmixEventData>) v));
            }
         });
         return  data.stream().map(RhythmixEventData::getValue).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,8 @@ package io.github.mfinnnne.rhythmix.udf;
 import io.github.mfinnnne.rhythmix.exception.TranslatorException;
 import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
 import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.lib.NumericChainQueue;
+import io.github.mfinnnne.rhythmix.lib.NumericColumns;
 import io.github.mfinnnne.rhythmix.pebble.TemplateEngine;
 import io.github.mfinnnne.rhythmix.udf.builtin.calculator.MaxChainCalculator;
 import io.github.mfinnnne.rhythmix.udf.builtin.calculator.MinChainCalculator;
@@ -26,6 +28,110 @@ class ChainCalculatorUDFTest {
         TemplateEngine.enableDebugModel(true);
     }
 
+    /**
+     * Incremental sum of squares for testing
+     */
+    @RhythmixUDF
+    static public class SquareSumChainCalculatorUDF implements IncrementalChainCalculatorUDF<double[]> {
+        @Override
+        public String getName() {
+            return "squareSum";
+        }
+
+        @Override
+        public double[] init() {
+            return new double[1];
+        }
+
+        @Override
+        public void add(double[] sum, long ts, double value) {
+            sum[0] += value * value;
+        }
+
+        @Override
+        public void remove(double[] sum, long ts, double value) {
+            sum[0] -= value * value;
+        }
+
+        @Override
+        public Number result(double[] sum) {
+            return sum[0];
+        }
+    }
+
+    /**
+     * Time between the first and the last value of the window, for testing
+     */
+    @RhythmixUDF
+    static public class TimeSpanChainCalculatorUDF implements BatchChainCalculatorUDF {
+        @Override
+        public String getName() {
+            return "timeSpan";
+        }
+
+        @Override
+        public Number calculate(double[] values, long[] ts, int from, int to) {
+            return from == to ? 0 : ts[to - 1] - ts[from];
+        }
+    }
+
+    @Test
+    @DisplayName("BatchChainCalculatorUDF - columns of the queue, of a take view and of events")
+    void testBatchCalculator() throws TranslatorException {
+        RhythmixExecutor window = RhythmixCompiler.compile("filter(>0).window(3).timeSpan().meet(>=4)");
+        RhythmixExecutor take = RhythmixCompiler.compile("filter(>0).limit(4).take(1,4).timeSpan().meet(>=4)");
+        RhythmixExecutor events = RhythmixCompiler.compile("filter(numericFilter()).window(3).timeSpan().meet(>=4)");
+        assertTrue(window.getEnvProxy().getStates().values().stream().anyMatch(NumericChainQueue.class::isInstance));
+        assertTrue(window.getEnvProxy().getStates().values().stream().anyMatch(NumericColumns.class::isInstance));
+        assertTrue(events.getEnvProxy().getStates().values().stream().noneMatch(NumericChainQueue.class::isInstance));
+        long t = System.currentTimeMillis();
+        // timestamps of the accepted events: t, t+1, t+5, t+6, t+7
+        assertFalse(window.execute(createEventDataWithTimestamp(1, t)));
+        assertFalse(window.execute(createEventDataWithTimestamp(-1, t + 2)));
+        assertFalse(window.execute(createEventDataWithTimestamp(2, t + 1)));
+        assertTrue(window.execute(createEventDataWithTimestamp(3, t + 5)));
+        assertTrue(window.execute(createEventDataWithTimestamp(4, t + 6)));
+        assertFalse(window.execute(createEventDataWithTimestamp(5, t + 7)));
+        for (RhythmixExecutor executor : Arrays.asList(take, events)) {
+            assertFalse(executor.execute(createEventDataWithTimestamp(1, t)));
+            assertFalse(executor.execute(createEventDataWithTimestamp(2, t + 1)));
+            assertFalse(executor.execute(createEventDataWithTimestamp(3, t + 2)));
+            assertTrue(executor.execute(createEventDataWithTimestamp(4, t + 5)));
+        }
+        assertEquals(5L, new TimeSpanChainCalculatorUDF().calculate(Arrays.asList(
+                createEventDataWithTimestamp(1, t), createEventData("x"), createEventDataWithTimestamp(2, t + 5))));
+    }
+
+    @Test
+    @DisplayName("IncrementalChainCalculatorUDF - driven by the window, list form elsewhere")
+    void testIncrementalCalculator() throws TranslatorException {
+        RhythmixExecutor window = RhythmixCompiler.compile("filter(>0).window(3).squareSum().meet(>=50)");
+        RhythmixExecutor limit = RhythmixCompiler.compile("filter(>0).limit(3).squareSum().meet(>=50)");
+        RhythmixExecutor timeWindow = RhythmixCompiler.compile("filter(>0).window(2ms).squareSum().meet(>=50)");
+        assertTrue(window.getEnvProxy().getStates().values().stream().anyMatch(UDFAccumulator.class::isInstance));
+        assertTrue(timeWindow.getEnvProxy().getStates().values().stream().noneMatch(UDFAccumulator.class::isInstance));
+        Random random = new Random(23);
+        List<Integer> values = new ArrayList<>();
+        long t = System.currentTimeMillis();
+        for (int i = 0; i < 300; i++) {
+            int value = random.nextInt(8) - 2;
+            if (value > 0) {
+                values.add(value);
+                if (values.size() > 3) {
+                    values.remove(0);
+                }
+            }
+            int squares = values.stream().mapToInt(x -> x * x).sum();
+            RhythmixEventData event = createEventDataWithTimestamp(value, t + i);
+            assertEquals(value > 0 && values.size() == 3 && squares >= 50, window.execute(event), "window, event " + i);
+            assertEquals(value > 0 && squares >= 50, limit.execute(event), "limit, event " + i);
+        }
+        assertFalse(timeWindow.execute(createEventDataWithTimestamp(1, t)));
+        assertFalse(timeWindow.execute(createEventDataWithTimestamp(5, t + 1)));
+        // window [1, 5, 7] through calculate(List)
+        assertTrue(timeWindow.execute(createEventDataWithTimestamp(7, t + 2)));
+    }
+
 
     @Test
     @DisplayName("MyMaxCalculator - Test with positive integers")
@@ -25,6 +25,7 @@ class ChainFilterUDFTest {
     /**
      * Simple temperature filter UDF for testing
      */
+    @RhythmixUDF
     static public class TemperatureChainFilterUDF implements ChainFilterUDF {
         @Override
         public String getName() {
@@ -45,6 +46,7 @@ class ChainFilterUDFTest {
     /**
      * Sensor ID pattern filter UDF for testing
      */
+    @RhythmixUDF
     static public class SensorIdChainFilterUDF implements ChainFilterUDF {
         @Override
         public String getName() {
@@ -60,6 +62,7 @@ class ChainFilterUDFTest {
     /**
      * Array filter UDF for testing - keeps only the last 3 events when list size > 3
      */
+    @RhythmixUDF
     static public class TestArrayChainFilterUDF implements ChainFilterUDF {
         @Override
         public String getName() {
@@ -75,6 +78,22 @@ class ChainFilterUDFTest {
         }
     }
 
+    /**
+     * Incremental filter UDF for testing - keeps only the last 3 events
+     */
+    @RhythmixUDF
+    static public class LastThreeChainFilterUDF implements IncrementalChainFilterUDF {
+        @Override
+        public String getName() {
+            return "lastThree";
+        }
+
+        @Override
+        public int onAppend(RhythmixEventData event, List<RhythmixEventData> queue) {
+            return Math.max(0, queue.size() - 3);
+        }
+    }
+
     @Test
     @DisplayName("测试简单的温度过滤UDF")
     void testSimpleTemperatureFilterUDF() throws TranslatorException {
@@ -468,4 +487,38 @@ class ChainFilterUDFTest {
         });
     }
 
+    @Test
+    @DisplayName("测试增量过滤UDF只淘汰队头数据")
+    void testIncrementalFilterEvictsHead() throws TranslatorException {
+        RhythmixExecutor rhythmixExecutor = RhythmixCompiler.compile("filter(lastThree()).sum().meet(==120)");
+        Object queue = rhythmixExecutor.getEnvProxy().getStates().entrySet().stream()
+                .filter(entry -> entry.getKey().contains("rawChainQueue"))
+                .findFirst().orElseThrow().getValue();
+        long t = System.currentTimeMillis();
+        boolean[] expected = {false, false, false, false, true, false};
+        for (int i = 0; i < expected.length; i++) {
+            RhythmixEventData event = Util.genEventData("sensor" + i, String.valueOf((i + 1) * 10), new Timestamp(t + i));
+            Assertions.assertEquals(expected[i], rhythmixExecutor.execute(event), "event " + i);
+            // the queue is kept and trimmed in place, not rebuilt
+            Assertions.assertSame(queue, rhythmixExecutor.getEnvProxy().getStates().entrySet().stream()
+                    .filter(entry -> entry.getKey().contains("rawChainQueue"))
+                    .findFirst().orElseThrow().getValue());
+            Assertions.assertEquals(Math.min(i + 1, 3), ((List<?>) queue).size());
+        }
+    }
+
+    @Test
+    @DisplayName("测试过滤UDF与计数窗口在匹配重置后继续生效")
+    void testFilterUDFWindowAfterReset() throws TranslatorException {
+        RhythmixExecutor executor = RhythmixCompiler.compile("filter(numericFilter()).window(3).sum().meet(>5)");
+        long t = System.currentTimeMillis();
+        StringBuilder results = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            String value = i == 3 ? "1" : "9";
+            results.append(executor.execute(Util.genEventData("1", value, new Timestamp(t + i))) ? '1' : '0');
+        }
+        // a match resets the queue replaced by the filter UDF; the window goes on over the last 3 events
+        Assertions.assertEquals("00101111111111111111", results.toString());
+    }
+
 }
@@ -15,6 +15,7 @@ import java.util.Set;
 public class ChainMeetUDFRegistryTest {
 
     // Test implementation of MeetUDF
+    @RhythmixUDF
     public static class TestChainMeetUDF implements ChainMeetUDF {
         @Override
         public String getName() {
@@ -31,6 +32,7 @@ public class ChainMeetUDFRegistryTest {
     }
 
     // Another test implementation
+    @RhythmixUDF
     public static class AnotherTestChainMeetUDF implements ChainMeetUDF {
         @Override
         public String getName() {
@@ -47,6 +49,7 @@ public class ChainMeetUDFRegistryTest {
     }
 
     // Test implementation with duplicate name
+    @RhythmixUDF
     public static class DuplicateNameChainMeetUDF implements ChainMeetUDF {
         @Override
         public String getName() {
@@ -25,6 +25,7 @@ class ChainMeetUDFTest {
     /**
      * Simple custom meet UDF for testing - checks if value is greater than 15
      */
+    @RhythmixUDF
     static public class CustomThresholdChainMeetUDF implements ChainMeetUDF {
         @Override
         public String getName() {
@@ -47,6 +48,7 @@ class ChainMeetUDFTest {
     /**
      * Range meet UDF for testing - checks if value is between 20 and 100
      */
+    @RhythmixUDF
     static public class CustomRangeChainMeetUDF implements ChainMeetUDF {
         @Override
         public String getName() {
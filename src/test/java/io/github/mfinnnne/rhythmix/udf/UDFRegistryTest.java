@@ -20,6 +20,7 @@ import java.util.concurrent.TimeUnit;
 public class UDFRegistryTest {
 
     // Test implementation of FilterUDF
+    @RhythmixUDF
     public static class TestChainFilterUDF implements ChainFilterUDF {
         @Override
         public String getName() {
@@ -38,6 +39,7 @@ public class UDFRegistryTest {
     }
 
     // Test implementation of CalculatorUDF
+    @RhythmixUDF
     public static class TestChainCalculatorUDF implements ChainCalculatorUDF {
         @Override
         public String getName() {
@@ -50,6 +52,24 @@ public class UDFRegistryTest {
         }
     }
 
+    // Not annotated, only found by scanning
+    public static class UnindexedChainFilterUDF implements ChainFilterUDF {
+        @Override
+        public String getName() {
+            return "unindexedFilter";
+        }
+
+        @Override
+        public boolean filter(RhythmixEventData data) {
+            return true;
+        }
+
+        @Override
+        public List<RhythmixEventData> filter(List<RhythmixEventData> dataList) {
+            return dataList;
+        }
+    }
+
     private UDFRegistry<ChainFilterUDF> filterRegistry;
     private UDFRegistry<ChainCalculatorUDF> calculatorRegistry;
 
@@ -197,6 +217,27 @@ public class UDFRegistryTest {
         assertTrue(filterRegistry.isAutoImportCompleted());
     }
 
+    @Test
+    void testAutoImportReadsTheIndex() {
+        filterRegistry.autoImportUDFs();
+        // annotated test UDF, and built-in listed by hand
+        assertTrue(filterRegistry.isRegistered("testFilter"));
+        assertTrue(filterRegistry.isRegistered("numericFilter"));
+        assertFalse(filterRegistry.isRegistered("unindexedFilter"));
+    }
+
+    @Test
+    void testAutoImportScansOnlyOnRequest() {
+        System.setProperty(UDFRegistry.SCAN_PROPERTY, "io.github.mfinnnne.rhythmix.udf");
+        try {
+            filterRegistry.autoImportUDFs();
+        } finally {
+            System.clearProperty(UDFRegistry.SCAN_PROPERTY);
+        }
+        assertTrue(filterRegistry.isRegistered("unindexedFilter"));
+        assertTrue(filterRegistry.isRegistered("testFilter"));
+    }
+
     @Test
     void testAutoImportIdempotent() {
         filterRegistry.autoImportUDFs();
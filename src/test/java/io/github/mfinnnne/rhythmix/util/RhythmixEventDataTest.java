@@ -0,0 +1,74 @@
+package io.github.mfinnnne.rhythmix.util;
+
+import io.github.mfinnnne.rhythmix.exception.TranslatorException;
+import io.github.mfinnnne.rhythmix.execute.RhythmixCompiler;
+import io.github.mfinnnne.rhythmix.execute.RhythmixExecutor;
+import io.github.mfinnnne.rhythmix.udf.builtin.calculator.MaxChainCalculator;
+import io.github.mfinnnne.rhythmix.udf.builtin.calculator.MinChainCalculator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+
+class RhythmixEventDataTest {
+
+    @Test
+    void numberIsParsedOnceAndResetBySetValue() {
+        RhythmixEventData event = new RhythmixEventData("1", "a", "12", new Timestamp(0));
+        Assertions.assertEquals(12L, event.getNumber());
+        Assertions.assertSame(event.getNumber(), event.getNumber());
+
+        event.setValue("1.5");
+        Assertions.assertEquals(1.5, event.getNumber());
+        event.setValue("abc");
+        Assertions.assertNull(event.getNumber());
+        Assertions.assertTrue(Double.isNaN(event.doubleValue()));
+        event.setValue("1e3");
+        Assertions.assertNull(event.getNumber());
+        Assertions.assertEquals(1000.0, event.doubleValue());
+    }
+
+    @Test
+    void valueWithoutDigitIsNotANumber() {
+        for (String value : new String[]{".", "-."}) {
+            RhythmixEventData event = new RhythmixEventData("1", "a", value, new Timestamp(0));
+            Assertions.assertNull(event.getNumber(), value);
+            Assertions.assertTrue(Double.isNaN(event.doubleValue()), value);
+        }
+        List<RhythmixEventData> window = Arrays.asList(new RhythmixEventData("1", "a", "3", new Timestamp(0)),
+                new RhythmixEventData("1", "a", ".", new Timestamp(1)));
+        Assertions.assertEquals(3L, new MaxChainCalculator().calculate(window));
+        Assertions.assertEquals(3L, new MinChainCalculator().calculate(window));
+    }
+
+    @Test
+    void numericEventFormatsValueLazily() {
+        RhythmixEventData longEvent = new NumericEventData("1", "a", 3L, new Timestamp(0));
+        Assertions.assertEquals(3L, longEvent.getNumber());
+        Assertions.assertEquals("3", longEvent.getValue());
+
+        RhythmixEventData doubleEvent = new NumericEventData("a", 2.5, new Timestamp(0));
+        Assertions.assertEquals(2.5, doubleEvent.getNumber());
+        Assertions.assertEquals("2.5", doubleEvent.getValue());
+
+        Assertions.assertEquals(new RhythmixEventData("1", "a", "3", new Timestamp(0)), longEvent);
+    }
+
+    @Test
+    void numericEventsRunRules() throws TranslatorException {
+        long t = System.currentTimeMillis();
+        RhythmixExecutor compare = RhythmixCompiler.compile("{>3}");
+        Assertions.assertFalse(compare.execute(new NumericEventData("a", 3L, new Timestamp(t))));
+        Assertions.assertTrue(compare.execute(new NumericEventData("a", 3.5, new Timestamp(t))));
+
+        RhythmixExecutor range = RhythmixCompiler.compile("{(1,3]}");
+        Assertions.assertTrue(range.execute(new NumericEventData("a", 3L, new Timestamp(t))));
+
+        RhythmixExecutor chain = RhythmixCompiler.compile("filter(>0).limit(3).maxcalc().meet(>=5)");
+        Assertions.assertFalse(chain.execute(new NumericEventData("a", 1L, new Timestamp(t))));
+        Assertions.assertFalse(chain.execute(new RhythmixEventData("1", "a", "4", new Timestamp(t + 1))));
+        Assertions.assertTrue(chain.execute(new NumericEventData("a", 5.0, new Timestamp(t + 2))));
+    }
+}
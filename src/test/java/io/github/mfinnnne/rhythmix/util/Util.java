@@ -34,7 +34,7 @@ public class Util {
     public static List<String> getChainProcessedQueueData(RhythmixExecutor executor) {
         final EnvProxy envProxy = executor.getEnvProxy();
         List<RhythmixEventData> data = new ArrayList<>();
-        envProxy.getEnv().forEach((k, v) -> {
+        envProxy.getStates().forEach((k, v) -> {
             if (k.contains("processedChainQueue")) {
                 data.addAll(((List<RhythmixEventData>) v));
             }
@@ -45,7 +45,7 @@ public class Util {
     public static List<String> getRawProcessedQueueData(RhythmixExecutor executor) {
         final EnvProxy envProxy = executor.getEnvProxy();
         List<RhythmixEventData> data = new ArrayList<>();
-        envProxy.getEnv().forEach((k, v) -> {
+        envProxy.getStates().forEach((k, v) -> {
             if (k.contains("rawChainQueue")) {
                 data.addAll(((List<RhythmixEventData>) v));
             }